@@ -0,0 +1,96 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.index.ClassIndex;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodIndex;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodIndex.Candidate;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodIndex.Range;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.SymbolTable;
+
+/**
+ * Measures the bytecode side of {@code @At(target = "...")} completion:
+ * indexing class files, decoding the code of a target method, and turning the
+ * decoded references into the candidates of an injection point type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClassIndexBenchmark {
+    @Param("3000")
+    public int classCount;
+
+    @Param({ "INVOKE", "INVOKE_STRING", "INVOKE_ASSIGN", "FIELD", "NEW", "CONSTANT", "JUMP" })
+    public String injectionPoint;
+
+    private Corpus corpus;
+    private byte[] hugeClass;
+    private MethodIndex hugeMethod;
+
+    @Setup
+    public void setup() throws IOException {
+        this.corpus = Corpus.generate(42, this.classCount);
+        this.hugeClass = this.corpus.getClass(this.corpus.getHugeClasses().get(0));
+        this.hugeMethod = ClassIndex.create(this.hugeClass, new SymbolTable()).findMethods(Corpus.HUGE_METHOD)
+                .get(0);
+    }
+
+    /**
+     * Reads the method headers of every class of the corpus, as the first
+     * completion in a mixin of each of them does.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void indexCorpus(Blackhole blackhole) {
+        SymbolTable symbols = new SymbolTable();
+        for (byte[] bytes : this.corpus.getClasses()) {
+            blackhole.consume(ClassIndex.create(bytes, symbols));
+        }
+    }
+
+    /**
+     * Indexes a class and decodes its method of tens of thousands of
+     * instructions.
+     */
+    @Benchmark
+    public List<MethodIndex> decodeHugeMethod() throws IOException {
+        return ClassIndex.create(this.hugeClass, new SymbolTable()).findMethods(Corpus.HUGE_METHOD);
+    }
+
+    /**
+     * Collects the candidates of an injection point type from the decoded huge
+     * method, as {@code InjectionPointTargetCompletor} does for every target.
+     */
+    @Benchmark
+    public List<Candidate> collectCandidates() {
+        return switch (this.injectionPoint) {
+            case "INVOKE" -> this.hugeMethod.invokedMethods(Range.ALL);
+            case "INVOKE_STRING" -> this.hugeMethod.stringInvokedMethods(Range.ALL);
+            case "INVOKE_ASSIGN" -> this.hugeMethod.nonVoidInvokedMethods(Range.ALL);
+            case "FIELD" -> this.hugeMethod.getAccessedFields(Opcodes.GETFIELD, Range.ALL);
+            case "NEW" -> this.hugeMethod.invokedConstructors(Range.ALL);
+            case "CONSTANT" -> this.hugeMethod.getConstants(Range.ALL);
+            case "JUMP" -> this.hugeMethod.getJumps(Range.ALL);
+            default -> throw new IllegalArgumentException(this.injectionPoint);
+        };
+    }
+}
@@ -0,0 +1,312 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * A corpus of class files shaped like the classes of a large game jar,
+ * generated deterministically from a seed.
+ *
+ * <p>
+ * Every class has fields and ordinary methods that invoke methods, access
+ * fields and create objects of other classes of the corpus. Every 8th class
+ * also has {@value #OVERLOAD_COUNT} overloads of {@value #OVERLOADED_METHOD}
+ * and overloaded constructors, every 16th class has a chain of
+ * {@value #NESTING_DEPTH} nested inner classes, and every 25th class has a
+ * {@value #HUGE_METHOD} method whose code is close to the 64 KB limit, with
+ * tens of thousands of instructions.
+ */
+public final class Corpus {
+    public static final String HUGE_METHOD = "tick";
+    public static final String OVERLOADED_METHOD = "apply";
+
+    static final int OVERLOAD_COUNT = 48;
+    static final int NESTING_DEPTH = 10;
+
+    private static final int HUGE_CODE_SIZE = 60_000;
+    private static final int FIELD_COUNT = 16;
+    private static final int METHOD_COUNT = 24;
+    private static final int NAME_COUNT = 64;
+    private static final int STRING_COUNT = 256;
+    private static final int OWNER_COUNT = 32;
+
+    private static final String[] FIELD_DESCRIPTORS = { "I", "J", "Z", "Ljava/lang/String;", "Ljava/util/List;",
+            "[I", "Ljava/lang/Object;", "D" };
+
+    private static final String[] METHOD_DESCRIPTORS = { "()V", "(I)V", "(Ljava/lang/String;)V", "(II)I",
+            "(Ljava/lang/Object;)Z", "()Ljava/lang/Object;", "(JLjava/util/List;)V", "(D[I)J" };
+
+    /**
+     * The descriptors of the invoked methods, which take no arguments so that
+     * every generated block leaves the stack as it found it.
+     */
+    private static final String[] INVOKED_DESCRIPTORS = { "()V", "()I", "()J", "()Ljava/lang/Object;", "()Z" };
+
+    private static final String[] OVERLOAD_ARGUMENTS = { "I", "J", "Ljava/lang/String;", "[B" };
+
+    private final Map<String, byte[]> classes = new LinkedHashMap<>();
+    private final List<String> hugeClasses = new ArrayList<>();
+    private final List<String> overloadedClasses = new ArrayList<>();
+
+    private Corpus() {
+    }
+
+    /**
+     * Generates {@code classCount} top-level classes and their inner classes.
+     */
+    public static Corpus generate(long seed, int classCount) {
+        Corpus corpus = new Corpus();
+        Random random = new Random(seed);
+        for (int i = 0; i < classCount; i++) {
+            corpus.generateClass(random, i, classCount);
+        }
+        return corpus;
+    }
+
+    public Collection<byte[]> getClasses() {
+        return this.classes.values();
+    }
+
+    public byte[] getClass(String name) {
+        return this.classes.get(name);
+    }
+
+    /**
+     * Returns the classes with a {@value #HUGE_METHOD} method.
+     */
+    public List<String> getHugeClasses() {
+        return this.hugeClasses;
+    }
+
+    /**
+     * Returns the classes with overloads of {@value #OVERLOADED_METHOD}.
+     */
+    public List<String> getOverloadedClasses() {
+        return this.overloadedClasses;
+    }
+
+    private static String getClassName(int index) {
+        return "net/minecraft/package" + (index % 40) + "/Class" + index;
+    }
+
+    private void generateClass(Random random, int index, int classCount) {
+        String name = getClassName(index);
+        String[] owners = new String[OWNER_COUNT];
+        for (int i = 0; i < owners.length; i++) {
+            owners[i] = getClassName(random.nextInt(classCount));
+        }
+
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", null);
+
+        if (index % 16 == 0) {
+            String outer = name;
+            for (int depth = 1; depth <= NESTING_DEPTH; depth++) {
+                String inner = outer + "$Inner" + depth;
+                writer.visitInnerClass(inner, outer, "Inner" + depth, Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC);
+                this.generateInnerClass(random, name, inner, outer, depth, owners);
+                outer = inner;
+            }
+        }
+
+        this.generateMembers(writer, random, owners);
+        this.generateConstructor(writer, random, "()V", owners);
+
+        if (index % 8 == 0) {
+            for (int i = 0; i < OVERLOAD_COUNT; i++) {
+                String descriptor = getOverloadDescriptor(i, "V");
+                MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, OVERLOADED_METHOD, descriptor, null,
+                        null);
+                writeMethod(method, random, owners, 200, "V");
+            }
+            for (int i = 0; i < OVERLOAD_COUNT / 4; i++) {
+                this.generateConstructor(writer, random, getOverloadDescriptor(i + 1, "V"), owners);
+            }
+            this.overloadedClasses.add(name);
+        }
+
+        if (index % 25 == 0) {
+            MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, HUGE_METHOD, "()V", null, null);
+            writeMethod(method, random, owners, HUGE_CODE_SIZE, "V");
+            this.hugeClasses.add(name);
+        }
+
+        writer.visitEnd();
+        this.classes.put(name, writer.toByteArray());
+    }
+
+    private void generateInnerClass(Random random, String topLevel, String name, String outer, int depth,
+            String[] owners) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", null);
+        writer.visitNestHost(topLevel);
+        writer.visitInnerClass(name, outer, "Inner" + depth, Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC);
+        this.generateMembers(writer, random, owners);
+        this.generateConstructor(writer, random, "()V", owners);
+        writer.visitEnd();
+        this.classes.put(name, writer.toByteArray());
+    }
+
+    private void generateMembers(ClassWriter writer, Random random, String[] owners) {
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            writer.visitField(Opcodes.ACC_PUBLIC, "field" + i, FIELD_DESCRIPTORS[i % FIELD_DESCRIPTORS.length],
+                    null, null).visitEnd();
+        }
+
+        for (int i = 0; i < METHOD_COUNT; i++) {
+            String descriptor = METHOD_DESCRIPTORS[random.nextInt(METHOD_DESCRIPTORS.length)];
+            MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "method" + i, descriptor, null, null);
+            writeMethod(method, random, owners, 200 + random.nextInt(1200),
+                    descriptor.substring(descriptor.indexOf(')') + 1));
+        }
+
+        MethodVisitor synthetic = writer.visitMethod(Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC, "lambda$0", "()V",
+                null, null);
+        writeMethod(synthetic, random, owners, 40, "V");
+    }
+
+    private void generateConstructor(ClassWriter writer, Random random, String descriptor, String[] owners) {
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", descriptor, null, null);
+        method.visitCode();
+        method.visitVarInsn(Opcodes.ALOAD, 0);
+        method.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        writeCode(method, random, owners, 100);
+        method.visitInsn(Opcodes.RETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    private static String getOverloadDescriptor(int index, String returnType) {
+        StringBuilder result = new StringBuilder("(");
+        for (int i = index; i > 0; i /= OVERLOAD_ARGUMENTS.length) {
+            result.append(OVERLOAD_ARGUMENTS[i % OVERLOAD_ARGUMENTS.length]);
+        }
+        return result.append(')').append(returnType).toString();
+    }
+
+    private static void writeMethod(MethodVisitor method, Random random, String[] owners, int codeSize,
+            String returnType) {
+        method.visitCode();
+        writeCode(method, random, owners, codeSize);
+        switch (returnType.charAt(0)) {
+            case 'V' -> method.visitInsn(Opcodes.RETURN);
+            case 'J' -> {
+                method.visitInsn(Opcodes.LCONST_0);
+                method.visitInsn(Opcodes.LRETURN);
+            }
+            case 'L', '[' -> {
+                method.visitInsn(Opcodes.ACONST_NULL);
+                method.visitInsn(Opcodes.ARETURN);
+            }
+            default -> {
+                method.visitInsn(Opcodes.ICONST_0);
+                method.visitInsn(Opcodes.IRETURN);
+            }
+        }
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    /**
+     * Writes blocks of instructions until about {@code codeSize} bytes are
+     * written. Every block leaves the stack as it found it.
+     */
+    private static void writeCode(MethodVisitor method, Random random, String[] owners, int codeSize) {
+        int size = 0;
+        while (size < codeSize) {
+            String owner = owners[random.nextInt(owners.length)];
+            int field = random.nextInt(FIELD_COUNT);
+            String fieldDescriptor = FIELD_DESCRIPTORS[field % FIELD_DESCRIPTORS.length];
+            int pop = fieldDescriptor.equals("J") || fieldDescriptor.equals("D") ? Opcodes.POP2 : Opcodes.POP;
+
+            switch (random.nextInt(10)) {
+                case 0, 1 -> {
+                    String descriptor = INVOKED_DESCRIPTORS[random.nextInt(INVOKED_DESCRIPTORS.length)];
+                    method.visitVarInsn(Opcodes.ALOAD, 0);
+                    method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, owner, "method" + random.nextInt(NAME_COUNT),
+                            descriptor, false);
+                    popResult(method, descriptor);
+                    size += 5;
+                }
+                case 2 -> {
+                    String descriptor = INVOKED_DESCRIPTORS[random.nextInt(INVOKED_DESCRIPTORS.length)];
+                    method.visitMethodInsn(Opcodes.INVOKESTATIC, owner, "method" + random.nextInt(NAME_COUNT),
+                            descriptor, false);
+                    popResult(method, descriptor);
+                    size += 4;
+                }
+                case 3 -> {
+                    method.visitLdcInsn("string" + random.nextInt(STRING_COUNT));
+                    method.visitMethodInsn(Opcodes.INVOKESTATIC, owner, "push", "(Ljava/lang/String;)V", false);
+                    size += 6;
+                }
+                case 4 -> {
+                    method.visitFieldInsn(Opcodes.GETSTATIC, owner, "field" + field, fieldDescriptor);
+                    method.visitInsn(pop);
+                    size += 4;
+                }
+                case 5 -> {
+                    method.visitVarInsn(Opcodes.ALOAD, 0);
+                    method.visitFieldInsn(Opcodes.GETFIELD, owner, "field" + field, fieldDescriptor);
+                    method.visitInsn(pop);
+                    size += 5;
+                }
+                case 6 -> {
+                    method.visitVarInsn(Opcodes.ALOAD, 0);
+                    pushDefault(method, fieldDescriptor);
+                    method.visitFieldInsn(Opcodes.PUTFIELD, owner, "field" + field, fieldDescriptor);
+                    size += 5;
+                }
+                case 7 -> {
+                    method.visitTypeInsn(Opcodes.NEW, owner);
+                    method.visitInsn(Opcodes.DUP);
+                    method.visitMethodInsn(Opcodes.INVOKESPECIAL, owner, "<init>", "()V", false);
+                    method.visitInsn(Opcodes.POP);
+                    size += 8;
+                }
+                case 8 -> {
+                    Label label = new Label();
+                    method.visitInsn(Opcodes.ICONST_0);
+                    method.visitJumpInsn(Opcodes.IFEQ, label);
+                    method.visitInsn(Opcodes.NOP);
+                    method.visitLabel(label);
+                    size += 5;
+                }
+                default -> {
+                    method.visitInsn(Opcodes.ICONST_1);
+                    method.visitInsn(Opcodes.ICONST_2);
+                    method.visitInsn(Opcodes.IADD);
+                    method.visitInsn(Opcodes.POP);
+                    size += 4;
+                }
+            }
+        }
+    }
+
+    private static void popResult(MethodVisitor method, String descriptor) {
+        switch (descriptor.charAt(descriptor.length() - 1)) {
+            case 'V' -> {
+            }
+            case 'J', 'D' -> method.visitInsn(Opcodes.POP2);
+            default -> method.visitInsn(Opcodes.POP);
+        }
+    }
+
+    private static void pushDefault(MethodVisitor method, String descriptor) {
+        switch (descriptor.charAt(0)) {
+            case 'J' -> method.visitInsn(Opcodes.LCONST_0);
+            case 'D' -> method.visitInsn(Opcodes.DCONST_0);
+            case 'L', '[' -> method.visitInsn(Opcodes.ACONST_NULL);
+            default -> method.visitInsn(Opcodes.ICONST_0);
+        }
+    }
+}
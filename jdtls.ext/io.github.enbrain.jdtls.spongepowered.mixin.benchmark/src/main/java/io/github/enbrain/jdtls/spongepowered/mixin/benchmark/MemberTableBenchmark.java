@@ -0,0 +1,74 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.index.ClassIndex;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MemberTable;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodHeader;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.SymbolTable;
+
+/**
+ * Measures building the member tables {@code InjectorMethodCompletor} takes
+ * its labels from, which groups the methods of a class by name to find the
+ * overloaded ones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberTableBenchmark {
+    @Param("3000")
+    public int classCount;
+
+    private List<Collection<MethodHeader>> methods;
+    private Collection<MethodHeader> overloadedMethods;
+
+    @Setup
+    public void setup() {
+        Corpus corpus = Corpus.generate(42, this.classCount);
+        SymbolTable symbols = new SymbolTable();
+        this.methods = new ArrayList<>();
+        for (byte[] bytes : corpus.getClasses()) {
+            this.methods.add(ClassIndex.create(bytes, symbols).getMethods());
+        }
+        this.overloadedMethods = ClassIndex.create(corpus.getClass(corpus.getOverloadedClasses().get(0)), symbols)
+                .getMethods();
+    }
+
+    /**
+     * Builds the member table of every class of the corpus.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void groupCorpus(Blackhole blackhole) {
+        for (Collection<MethodHeader> classMethods : this.methods) {
+            blackhole.consume(MemberTable.create(classMethods).getMethodLabels());
+        }
+    }
+
+    /**
+     * Builds the member table of a class with dozens of overloads of a method.
+     */
+    @Benchmark
+    public List<String> groupOverloads() {
+        return MemberTable.create(this.overloadedMethods).getMethodLabels();
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.FocusFinder.Focus;
+import io.github.enbrain.jdtls.spongepowered.mixin.jfr.ParseEvent;
+
+/**
+ * Caches the binding-resolved AST of recently completed compilation units.
+ *
+ * <p>
+ * An entry is reused as long as the buffer still holds the exact source it was
+ * parsed from, so repeated completions in an unchanged document skip the parse.
+ * Method bodies other than the one containing the focus are skipped, so an
+ * entry is also keyed on that body.
+ */
+public final class ASTCache {
+    private ASTCache() {
+    }
+
+    /**
+     * Each entry holds a binding-resolved AST and with it the lookup
+     * environment of its project, so only the few documents that completion
+     * switches between are kept.
+     */
+    private static final int MAX_ENTRIES = 3;
+
+    private static final Map<ICompilationUnit, Entry> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ICompilationUnit, Entry> eldest) {
+            return this.size() > MAX_ENTRIES;
+        }
+    };
+
+    public static ASTNode getAST(ICompilationUnit unit, String source, Focus focus, IProgressMonitor monitor) {
+        synchronized (CACHE) {
+            Entry entry = CACHE.get(unit);
+            if (entry != null && entry.bodyStart() == focus.bodyStart() && entry.source().equals(source)) {
+                CompletionStats.hit("ast");
+                return entry.root();
+            }
+        }
+
+        CompletionStats.miss("ast");
+        long start = System.nanoTime();
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        ASTNode root = parse(unit, focus.offset(), monitor);
+        if (monitor.isCanceled()) {
+            throw new OperationCanceledException();
+        }
+        event.finish(unit);
+        CompletionStats.record(CompletionStats.PARSE, start);
+
+        synchronized (CACHE) {
+            CACHE.put(unit, new Entry(source, focus.bodyStart(), root));
+        }
+
+        return root;
+    }
+
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * Sets the compiler options completion relies on. Setting the source or the
+     * project of a parser resets its options, so this must be called after.
+     */
+    public static void setCompilerOptions(ASTParser parser) {
+        Map<String, String> options = JavaCore.getOptions();
+        options.put(JavaCore.COMPILER_COMPLIANCE, Util.JAVA_VERSION);
+        options.put(JavaCore.COMPILER_CODEGEN_TARGET_PLATFORM, Util.JAVA_VERSION);
+        options.put(JavaCore.COMPILER_SOURCE, Util.JAVA_VERSION);
+
+        JavaCore.setComplianceOptions(Util.JAVA_VERSION, options);
+        parser.setCompilerOptions(options);
+    }
+
+    private static ASTNode parse(ICompilationUnit unit, int focalPosition, IProgressMonitor monitor) {
+        ASTParser parser = ASTParser.newParser(AST.JLS18);
+
+        parser.setSource(unit);
+        parser.setResolveBindings(true);
+        parser.setStatementsRecovery(true);
+        parser.setFocalPosition(focalPosition);
+        setCompilerOptions(parser);
+
+        return parser.createAST(monitor);
+    }
+
+    private record Entry(String source, int bodyStart, ASTNode root) {
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.JavaCore;
+import org.osgi.framework.BundleActivator;
+import org.osgi.framework.BundleContext;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.index.IndexManager;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MixinIndex;
+
+public class Activator implements BundleActivator {
+    private final ElementChangedListener listener = new ElementChangedListener();
+
+    @Override
+    public void start(BundleContext context) throws Exception {
+        JavaCore.addElementChangedListener(this.listener, ElementChangedEvent.POST_CHANGE);
+    }
+
+    @Override
+    public void stop(BundleContext context) throws Exception {
+        JavaCore.removeElementChangedListener(this.listener);
+        IndexManager.clear();
+        MixinIndex.clear();
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.StringLiteral;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.Util.AnnotationMember;
+
+/**
+ * The state of a single completion request, shared by the completors.
+ */
+public final class CompletionContext {
+    private final ASTNode root;
+    private final StringLiteral literal;
+    private final Annotation annotation;
+    private final String annotationName;
+    private final String member;
+    private final String prefix;
+    private final IProgressMonitor monitor;
+    private List<IType> targetClasses;
+
+    private CompletionContext(ASTNode root, StringLiteral literal, Annotation annotation, String annotationName,
+            String member, String prefix, IProgressMonitor monitor) {
+        this.root = root;
+        this.literal = literal;
+        this.annotation = annotation;
+        this.annotationName = annotationName;
+        this.member = member;
+        this.prefix = prefix;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Returns the context for completing {@code current} at {@code offset}, or
+     * {@code null} if it is not a string literal in an annotation member.
+     */
+    public static CompletionContext create(ASTNode root, ASTNode current, int offset, IProgressMonitor monitor) {
+        if (current instanceof StringLiteral literal) {
+            AnnotationMember annotationMember = Util.getAnnotationMember(literal);
+            if (annotationMember != null) {
+                Annotation annotation = annotationMember.annotation();
+                ITypeBinding annotationType = annotation.getTypeName().resolveTypeBinding();
+                if (annotationType != null) {
+                    String value = literal.getEscapedValue();
+                    int prefixEnd = Math.max(1, Math.min(offset - literal.getStartPosition(), value.length() - 1));
+                    return new CompletionContext(root, literal, annotation, annotationType.getQualifiedName(),
+                            annotationMember.member(), value.substring(1, prefixEnd), monitor);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    public ASTNode getRoot() {
+        return this.root;
+    }
+
+    public StringLiteral getLiteral() {
+        return this.literal;
+    }
+
+    /**
+     * Returns the text typed in the literal before the cursor, as it was when
+     * the request started.
+     */
+    public String getPrefix() {
+        return this.prefix;
+    }
+
+    /**
+     * Returns the annotation whose member holds the literal.
+     */
+    public Annotation getAnnotation() {
+        return this.annotation;
+    }
+
+    public String getAnnotationName() {
+        return this.annotationName;
+    }
+
+    public String getMember() {
+        return this.member;
+    }
+
+    /**
+     * Returns the qualified name of the annotation followed by the member, like
+     * {@code org.spongepowered.asm.mixin.injection.At.target}.
+     */
+    public String getAnnotationKind() {
+        return this.annotationName + "." + this.member;
+    }
+
+    public IProgressMonitor getMonitor() {
+        return this.monitor;
+    }
+
+    /**
+     * Throws {@link OperationCanceledException} if the candidates are no
+     * longer needed, because the literal is no longer being completed.
+     */
+    public void checkCanceled() {
+        if (this.monitor.isCanceled()) {
+            throw new OperationCanceledException();
+        }
+    }
+
+    /**
+     * Returns the targets of the enclosing {@code @Mixin}, resolved once per
+     * request.
+     */
+    public List<IType> getTargetClasses() throws JavaModelException {
+        if (this.targetClasses == null) {
+            long start = System.nanoTime();
+            this.targetClasses = Util.getTargetClasses(this.root, this.annotation, this.monitor);
+            CompletionStats.record(CompletionStats.TARGETS, start);
+        }
+        return this.targetClasses;
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Filters and ranks completion items by the text already typed in the string
+ * literal, keeping only the best {@link #MAX_ITEMS}.
+ *
+ * <p>
+ * The typed text matches a label if its characters appear in order, case
+ * insensitively. Matches at the start of a segment of the label, like the
+ * simple name of an owner or the name of a member, and consecutive matches
+ * rank higher, and a plain prefix ranks highest.
+ */
+public final class CompletionFilter {
+    private CompletionFilter() {
+    }
+
+    public static final int MAX_ITEMS = 200;
+
+    private static final int NO_MATCH = Integer.MIN_VALUE;
+
+    private static final Comparator<Candidate> RANKING = Comparator.comparingInt(Candidate::score)
+            .thenComparing(Comparator.comparingInt((Candidate c) -> c.item().label().length()).reversed())
+            .thenComparing(Comparator.comparing((Candidate c) -> c.item().label()).reversed());
+
+    private record Candidate(CompletionItem item, int score) {
+    }
+
+    /**
+     * Returns the items whose label matches {@code prefix}, without duplicate
+     * labels. An item that does not match a prefix does not match any longer
+     * text starting with it either.
+     */
+    public static List<CompletionItem> match(Collection<CompletionItem> items, String prefix) {
+        List<CompletionItem> result = new ArrayList<>();
+        Set<String> labels = new HashSet<>();
+        for (CompletionItem item : items) {
+            if (labels.add(item.label()) && score(prefix, item.label()) != NO_MATCH) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    public static CompletionResult filter(Collection<CompletionItem> items, String prefix) {
+        PriorityQueue<Candidate> best = new PriorityQueue<>(RANKING);
+        Set<String> labels = new HashSet<>();
+        boolean isIncomplete = false;
+
+        for (CompletionItem item : items) {
+            if (!labels.add(item.label())) {
+                continue;
+            }
+
+            int score = score(prefix, item.label());
+            if (score == NO_MATCH) {
+                continue;
+            }
+
+            best.add(new Candidate(item, score));
+            if (best.size() > MAX_ITEMS) {
+                best.poll();
+                isIncomplete = true;
+            }
+        }
+
+        List<CompletionItem> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(best.poll().item());
+        }
+        Collections.reverse(result);
+        return new CompletionResult(result, isIncomplete);
+    }
+
+    /**
+     * Returns how well {@code prefix} matches {@code label}, or
+     * {@link #NO_MATCH}.
+     */
+    static int score(String prefix, String label) {
+        if (prefix.isEmpty()) {
+            return 0;
+        }
+        if (label.startsWith(prefix)) {
+            return 1000 + prefix.length() * 16;
+        }
+
+        int result = NO_MATCH;
+        char first = Character.toLowerCase(prefix.charAt(0));
+        for (int start = 0; start < label.length(); start++) {
+            if (isSegmentStart(label, start) && Character.toLowerCase(label.charAt(start)) == first) {
+                result = Math.max(result, scoreFrom(prefix, label, start));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Matches {@code prefix} greedily against {@code label}, starting at
+     * {@code start}.
+     */
+    private static int scoreFrom(String prefix, String label, int start) {
+        int score = 0;
+        int last = start - 1;
+
+        for (int i = 0; i < prefix.length(); i++) {
+            char expected = prefix.charAt(i);
+            char lower = Character.toLowerCase(expected);
+
+            int index = last + 1;
+            while (index < label.length() && Character.toLowerCase(label.charAt(index)) != lower) {
+                index++;
+            }
+            if (index == label.length()) {
+                return NO_MATCH;
+            }
+
+            if (index == last + 1) {
+                score += 8;
+            } else {
+                score -= Math.min(index - last - 1, 8);
+            }
+            if (isSegmentStart(label, index)) {
+                score += 12;
+            }
+            if (label.charAt(index) == expected) {
+                score += 1;
+            }
+            last = index;
+        }
+
+        return score;
+    }
+
+    private static boolean isSegmentStart(String label, int index) {
+        if (index == 0) {
+            return true;
+        }
+
+        char previous = label.charAt(index - 1);
+        char current = label.charAt(index);
+        return previous == '/' || previous == ';' || previous == '(' || previous == ')' || previous == '$'
+                || previous == '.' || previous == ':' || previous == '_'
+                || (Character.isLowerCase(previous) && Character.isUpperCase(current));
+    }
+}
@@ -1,73 +1,102 @@
 package io.github.enbrain.jdtls.spongepowered.mixin;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
-import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.ICompilationUnit;
-import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
-import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
-import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.NodeFinder;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.handlers.JsonRpcHelpers;
 
-import io.github.enbrain.jdtls.spongepowered.mixin.completionprovider.AccessorFieldCompletor;
+import io.github.enbrain.jdtls.spongepowered.mixin.FocusFinder.Focus;
 import io.github.enbrain.jdtls.spongepowered.mixin.completionprovider.Completor;
-import io.github.enbrain.jdtls.spongepowered.mixin.completionprovider.InjectionPointTargetCompletor;
-import io.github.enbrain.jdtls.spongepowered.mixin.completionprovider.InjectionPointTypeCompletor;
-import io.github.enbrain.jdtls.spongepowered.mixin.completionprovider.InjectorMethodCompletor;
-import io.github.enbrain.jdtls.spongepowered.mixin.completionprovider.InvokerMethodCompletor;
-import io.github.enbrain.jdtls.spongepowered.mixin.completionprovider.ShadowMemberCompletor;
+import io.github.enbrain.jdtls.spongepowered.mixin.jfr.CompletorEvent;
 
 public final class CompletionHandler {
     private CompletionHandler() {
     }
 
-    private static final List<Completor> COMPLETORS = List.of(
-            new AccessorFieldCompletor(),
-            new InjectionPointTargetCompletor(),
-            new InjectionPointTypeCompletor(),
-            new InjectorMethodCompletor(),
-            new InvokerMethodCompletor(),
-            new ShadowMemberCompletor());
+    /**
+     * Completes the string literal at the given position. If the candidates
+     * are not all collected within {@code timeout} milliseconds, returns the
+     * ones found so far as an incomplete result. A timeout of {@code 0} or less
+     * waits for all candidates.
+     */
+    public static CompletionResult complete(String uri, int line, int column, long requestId, long timeout,
+            IProgressMonitor monitor) throws JavaModelException {
+        long start = System.nanoTime();
+        IProgressMonitor requestMonitor = RequestScheduler.begin(uri, requestId, monitor);
+        try {
+            ICompilationUnit unit = JDTUtils.resolveCompilationUnit(uri);
 
-    public static List<CompletionItem> complete(String uri, int line, int column) throws JavaModelException {
-        List<CompletionItem> result = new ArrayList<>();
+            if (unit != null) {
+                String source = unit.getSource();
+                int offset = JsonRpcHelpers.toOffset(unit.getBuffer(), line, column);
+                CompletionSession session = CompletionSession.resume(uri, source, offset, requestMonitor);
+                if (session != null) {
+                    CompletionStats.hit("session");
+                } else {
+                    CompletionStats.miss("session");
+                    session = start(uri, unit, source, offset, requestMonitor);
+                }
 
-        ICompilationUnit unit = JDTUtils.resolveCompilationUnit(uri);
-
-        if (unit != null) {
-            int offset = JsonRpcHelpers.toOffset(unit.getBuffer(), line, column);
-            ASTNode root = parse(unit);
-            ASTNode current = NodeFinder.perform(root, offset, 1);
-
-            for (Completor completor : COMPLETORS) {
-                result.addAll(completor.complete(root, current));
+                if (session != null) {
+                    try {
+                        session.await(timeout > 0
+                                ? TimeUnit.MILLISECONDS.toNanos(timeout) - (System.nanoTime() - start)
+                                : Long.MAX_VALUE, requestMonitor);
+                    } catch (OperationCanceledException e) {
+                        return CompletionResult.EMPTY;
+                    }
+                    CompletionResult result = session.complete(offset);
+                    CompletionStats.record(CompletionStats.REQUEST, start);
+                    return result;
+                }
             }
-        }
 
-        return result;
+            return CompletionResult.EMPTY;
+        } finally {
+            RequestScheduler.end(uri, requestId);
+        }
     }
 
-    private static ASTNode parse(ICompilationUnit unit) {
-        ASTParser parser = ASTParser.newParser(AST.JLS18);
-
-        Map<String, String> options = JavaCore.getOptions();
-        options.put(JavaCore.COMPILER_COMPLIANCE, Util.JAVA_VERSION);
-        options.put(JavaCore.COMPILER_CODEGEN_TARGET_PLATFORM, Util.JAVA_VERSION);
-        options.put(JavaCore.COMPILER_SOURCE, Util.JAVA_VERSION);
+    /**
+     * Starts a session for the literal at {@code offset}, or returns
+     * {@code null} if there is nothing to complete.
+     */
+    private static CompletionSession start(String uri, ICompilationUnit unit, String source, int offset,
+            IProgressMonitor requestMonitor) {
+        long start = System.nanoTime();
+        Focus focus = FocusFinder.find(source, offset);
+        CompletionStats.record(CompletionStats.FOCUS, start);
+        if (focus == null || offset < focus.contentStart() || offset > focus.contentEnd()) {
+            return null;
+        }
 
-        parser.setSource(unit);
-        parser.setResolveBindings(true);
-        parser.setStatementsRecovery(true);
+        return CompletionSession.start(uri, source, focus.contentStart(), focus.contentEnd(),
+                (sink, monitor) -> collect(unit, source, focus, sink, monitor), requestMonitor);
+    }
 
-        JavaCore.setComplianceOptions(Util.JAVA_VERSION, options);
-        parser.setCompilerOptions(options);
+    private static void collect(ICompilationUnit unit, String source, Focus focus, CompletionSink sink,
+            IProgressMonitor monitor) throws JavaModelException {
+        ASTNode root = ASTCache.getAST(unit, source, focus, monitor);
+        ASTNode current = NodeFinder.perform(root, focus.offset(), 1);
+        CompletionContext context = CompletionContext.create(root, current, focus.offset(), monitor);
 
-        return parser.createAST(new NullProgressMonitor());
+        if (context != null) {
+            Completor completor = CompletorRegistry.get(context.getAnnotationName(), context.getMember());
+            if (completor != null) {
+                long start = System.nanoTime();
+                CompletorEvent event = new CompletorEvent();
+                event.begin();
+                completor.complete(context, sink);
+                event.finish(completor.getClass().getSimpleName(), context.getAnnotationKind(), sink.size());
+                CompletionStats.record("completor." + completor.getClass().getSimpleName(), start);
+                CompletionStats.recordCandidates(sink.size());
+            }
+        }
     }
 }
@@ -1,4 +1,10 @@
 package io.github.enbrain.jdtls.spongepowered.mixin;
 
-public record CompletionItem(String label, int kind) {
+/**
+ * @param detail shown next to the label, or {@code null}
+ */
+public record CompletionItem(String label, int kind, String detail) {
+    public CompletionItem(String label, int kind) {
+        this(label, kind, null);
+    }
 }
@@ -0,0 +1,11 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import java.util.List;
+
+/**
+ * The completion items of a request. {@code isIncomplete} is set if items were
+ * left out, so the client asks again as the user keeps typing.
+ */
+public record CompletionResult(List<CompletionItem> items, boolean isIncomplete) {
+    public static final CompletionResult EMPTY = new CompletionResult(List.of(), false);
+}
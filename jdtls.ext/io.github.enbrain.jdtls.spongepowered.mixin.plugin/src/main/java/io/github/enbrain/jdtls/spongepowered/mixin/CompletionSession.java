@@ -0,0 +1,293 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * The candidates of the string literal that is being completed, kept while the
+ * user types inside it.
+ *
+ * <p>
+ * The candidates of a literal depend on its own content at most through a
+ * {@linkplain CompletionSink#restrict scope}, a leading part of the typed
+ * text. They stay valid as long as the document is unchanged outside of the
+ * literal, the typed text still starts with the scope and the Java model has
+ * not changed. Checking that only compares text, so follow-up requests skip
+ * parsing and bytecode work. As the typed prefix grows, only the candidates
+ * that matched the previous prefix are matched again.
+ *
+ * <p>
+ * The candidates are collected in the background. A request that times out
+ * leaves the collection running, so a later request for the literal gets all
+ * of them. The collection is canceled once the session is replaced or
+ * cleared, or once the latest request for it has stayed canceled for a while
+ * without a newer one taking over, which it does on every keystroke.
+ */
+final class CompletionSession {
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long CANCEL_GRACE_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "Mixin Completion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static CompletionSession current;
+
+    private final String uri;
+    private final int contentStart;
+    private final CompletionSink sink = new CompletionSink();
+    private final IProgressMonitor monitor = new NullProgressMonitor() {
+        @Override
+        public boolean isCanceled() {
+            return super.isCanceled() || isRequestCanceled();
+        }
+    };
+    private Future<?> task;
+    private volatile boolean abandoned;
+    private List<CompletionItem> candidates;
+
+    private String source;
+    private int contentEnd;
+    private long lastUsed;
+
+    private IProgressMonitor requestMonitor;
+    private long canceledSince;
+
+    private String prefix;
+    private List<CompletionItem> matches;
+
+    /**
+     * Collects the candidates of a literal into {@code sink}.
+     */
+    interface Collector {
+        void collect(CompletionSink sink, IProgressMonitor monitor) throws JavaModelException;
+    }
+
+    private CompletionSession(String uri, String source, int contentStart, int contentEnd) {
+        this.uri = uri;
+        this.source = source;
+        this.contentStart = contentStart;
+        this.contentEnd = contentEnd;
+        this.lastUsed = System.nanoTime();
+    }
+
+    /**
+     * Starts a session for the literal whose content spans from
+     * {@code contentStart} to {@code contentEnd}, collecting its candidates with
+     * {@code collector} in the background for the request of
+     * {@code requestMonitor}.
+     */
+    static synchronized CompletionSession start(String uri, String source, int contentStart, int contentEnd,
+            Collector collector, IProgressMonitor requestMonitor) {
+        clear();
+        CompletionSession session = new CompletionSession(uri, source, contentStart, contentEnd);
+        session.attach(requestMonitor);
+        session.task = EXECUTOR.submit(() -> {
+            try {
+                collector.collect(session.sink, session.monitor);
+            } catch (OperationCanceledException e) {
+                session.abandoned = true;
+                throw e;
+            }
+            return null;
+        });
+        current = session;
+        return session;
+    }
+
+    /**
+     * Returns the current session updated to {@code source}, or {@code null}
+     * if it does not apply to {@code source} and {@code offset}. The session
+     * then keeps collecting for the request of {@code requestMonitor}.
+     */
+    static synchronized CompletionSession resume(String uri, String source, int offset,
+            IProgressMonitor requestMonitor) {
+        CompletionSession session = current;
+        if (session == null || session.abandoned || !session.uri.equals(uri)
+                || System.nanoTime() - session.lastUsed > TIMEOUT_NANOS) {
+            return null;
+        }
+
+        int contentEnd = session.contentEnd + source.length() - session.source.length();
+        if (contentEnd < session.contentStart || offset < session.contentStart || offset > contentEnd) {
+            return null;
+        }
+
+        String previous = session.source;
+        if (!source.regionMatches(0, previous, 0, session.contentStart)
+                || !source.regionMatches(contentEnd, previous, session.contentEnd,
+                        previous.length() - session.contentEnd)) {
+            return null;
+        }
+
+        for (int i = session.contentStart; i < contentEnd; i++) {
+            char c = source.charAt(i);
+            if (c == '"' || c == '\\' || c == '\n' || c == '\r') {
+                return null;
+            }
+        }
+        if (!session.isInScope(source, offset)) {
+            return null;
+        }
+
+        session.source = source;
+        session.contentEnd = contentEnd;
+        session.attach(requestMonitor);
+        return session;
+    }
+
+    static synchronized void clear() {
+        if (current != null) {
+            current.monitor.setCanceled(true);
+            current = null;
+        }
+    }
+
+    /**
+     * Returns whether the text typed up to {@code offset} starts with the scope
+     * of the candidates.
+     */
+    private boolean isInScope(String source, int offset) {
+        String scope = this.sink.getScope();
+        return offset - this.contentStart >= scope.length() && source.startsWith(scope, this.contentStart);
+    }
+
+    private synchronized void attach(IProgressMonitor requestMonitor) {
+        this.requestMonitor = requestMonitor;
+        this.canceledSince = 0;
+    }
+
+    /**
+     * Returns whether the latest request has been canceled for longer than
+     * {@link #CANCEL_GRACE_NANOS}, leaving a newer request time to take over.
+     */
+    private synchronized boolean isRequestCanceled() {
+        if (this.requestMonitor == null || !this.requestMonitor.isCanceled()) {
+            return false;
+        }
+
+        long now = System.nanoTime();
+        if (this.canceledSince == 0) {
+            this.canceledSince = now;
+        }
+        return now - this.canceledSince > CANCEL_GRACE_NANOS;
+    }
+
+    private static synchronized void discard(CompletionSession session) {
+        if (current == session) {
+            clear();
+        }
+    }
+
+    /**
+     * Waits up to {@code timeout} nanoseconds for the candidates to be
+     * collected, or without limit if it is {@link Long#MAX_VALUE}. Throws
+     * {@link OperationCanceledException} as soon as {@code monitor} is
+     * canceled, but leaves the collection running.
+     */
+    void await(long timeout, IProgressMonitor monitor) throws JavaModelException {
+        long start = System.nanoTime();
+        while (true) {
+            if (monitor.isCanceled()) {
+                throw new OperationCanceledException();
+            }
+
+            long remaining = timeout - (System.nanoTime() - start);
+            if (remaining <= 0) {
+                return;
+            }
+
+            try {
+                this.task.get(Math.min(remaining, POLL_NANOS), TimeUnit.NANOSECONDS);
+                return;
+            } catch (TimeoutException e) {
+                // Check for cancellation again
+            } catch (CancellationException e) {
+                throw new OperationCanceledException();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OperationCanceledException();
+            } catch (ExecutionException e) {
+                discard(this);
+                if (e.getCause() instanceof JavaModelException cause) {
+                    throw cause;
+                } else if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Completes the text typed up to {@code offset}. Until all candidates are
+     * collected, the result only holds the ones found so far and is marked
+     * incomplete. If the collection failed or was canceled, the session is
+     * discarded and the result is marked incomplete as well, so the next
+     * request starts over.
+     */
+    CompletionResult complete(int offset) {
+        synchronized (CompletionSession.class) {
+            String prefix = this.source.substring(this.contentStart, offset);
+            this.lastUsed = System.nanoTime();
+
+            if (!this.isInScope(this.source, offset)) {
+                // The scope was only known once the collection had started, so
+                // let the client ask again and start a new session.
+                discard(this);
+                return new CompletionResult(CompletionFilter.filter(this.sink.getItems(), prefix).items(), true);
+            }
+
+            if (!this.task.isDone() || !this.isCollected()) {
+                if (this.task.isDone()) {
+                    discard(this);
+                }
+                CompletionResult result = CompletionFilter.filter(this.sink.getItems(), prefix);
+                return new CompletionResult(result.items(), true);
+            }
+
+            if (this.candidates == null) {
+                this.candidates = this.sink.getItems();
+            }
+            List<CompletionItem> base = this.prefix != null && prefix.startsWith(this.prefix) ? this.matches
+                    : this.candidates;
+
+            this.prefix = prefix;
+            this.matches = CompletionFilter.match(base, prefix);
+            return CompletionFilter.filter(this.matches, prefix);
+        }
+    }
+
+    /**
+     * Returns whether the finished collection found all candidates, rather
+     * than failing or being canceled.
+     */
+    private boolean isCollected() {
+        if (this.task.isCancelled()) {
+            return false;
+        }
+        try {
+            this.task.get();
+            return true;
+        } catch (ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the completion items of a request as the completor finds them, so
+ * the items found so far can be returned before the completor has finished.
+ * An item whose label has already been added is dropped, so completors can
+ * pass on the candidates of every target class as they come.
+ */
+public final class CompletionSink {
+    private final List<CompletionItem> items = new ArrayList<>();
+    private final Set<String> labels = new HashSet<>();
+    private volatile String scope = "";
+
+    public synchronized void add(CompletionItem item) {
+        if (this.labels.add(item.label())) {
+            this.items.add(item);
+        }
+    }
+
+    public synchronized void addAll(Collection<CompletionItem> items) {
+        for (CompletionItem item : items) {
+            this.add(item);
+        }
+    }
+
+    public synchronized int size() {
+        return this.items.size();
+    }
+
+    /**
+     * Marks the items as limited to the labels that start with {@code scope},
+     * so they only apply while the typed text starts with it as well. Called
+     * before any item is added.
+     */
+    public void restrict(String scope) {
+        this.scope = scope;
+    }
+
+    /**
+     * Returns the text that the typed text must start with for the items to
+     * apply, which is empty unless they are {@linkplain #restrict restricted}.
+     */
+    public String getScope() {
+        return this.scope;
+    }
+
+    /**
+     * Returns a copy of the items added so far.
+     */
+    public synchronized List<CompletionItem> getItems() {
+        return new ArrayList<>(this.items);
+    }
+}
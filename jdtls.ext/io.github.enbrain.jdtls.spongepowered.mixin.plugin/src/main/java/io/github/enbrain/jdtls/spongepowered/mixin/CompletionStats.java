@@ -0,0 +1,114 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms of the completion phases and hit counters of the caches
+ * used by completion, returned by the {@code spongepowered.mixin.stats}
+ * command.
+ *
+ * <p>
+ * Recording a sample only takes a few atomic updates, so it is always on.
+ */
+public final class CompletionStats {
+    private CompletionStats() {
+    }
+
+    /** The whole completion request, from receiving it to returning items. */
+    public static final String REQUEST = "request";
+    /** The syntax-only parse deciding whether there is anything to complete. */
+    public static final String FOCUS = "focus";
+    /** The binding-resolving parse, on an {@link ASTCache} miss. */
+    public static final String PARSE = "parse";
+    /** Resolving the targets of the enclosing {@code @Mixin}. */
+    public static final String TARGETS = "targets";
+    /** Looking up the index or member table of a single target class. */
+    public static final String SCAN = "scan";
+
+    private static final Map<String, Histogram> PHASES = new ConcurrentHashMap<>();
+    private static final Histogram CANDIDATES = new Histogram();
+    private static final Map<String, AtomicLong> HITS = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> MISSES = new ConcurrentHashMap<>();
+
+    /**
+     * Records the time of {@code phase} that started at {@code start}, as
+     * returned by {@link System#nanoTime()}.
+     */
+    public static void record(String phase, long start) {
+        PHASES.computeIfAbsent(phase, k -> new Histogram()).record(System.nanoTime() - start);
+    }
+
+    /**
+     * Records the number of candidates collected for a literal, before they
+     * are filtered by the typed text.
+     */
+    public static void recordCandidates(int count) {
+        CANDIDATES.record(count);
+    }
+
+    public static void hit(String cache) {
+        HITS.computeIfAbsent(cache, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    public static void miss(String cache) {
+        MISSES.computeIfAbsent(cache, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Returns the count, p50, p95, p99 and max of every phase in milliseconds,
+     * the same for the candidate counts, and the hits and misses of every
+     * cache.
+     */
+    public static Map<String, Object> getSnapshot() {
+        Map<String, Object> phases = new LinkedHashMap<>();
+        new TreeMap<>(PHASES).forEach((phase, histogram) -> phases.put(phase, summarize(histogram, 1e-6)));
+
+        Set<String> names = new TreeSet<>(HITS.keySet());
+        names.addAll(MISSES.keySet());
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (String cache : names) {
+            Map<String, Object> counts = new LinkedHashMap<>();
+            counts.put("hits", getCount(HITS, cache));
+            counts.put("misses", getCount(MISSES, cache));
+            caches.put(cache, counts);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("phases", phases);
+        result.put("candidates", summarize(CANDIDATES, 1));
+        result.put("caches", caches);
+        return result;
+    }
+
+    public static void reset() {
+        PHASES.values().forEach(Histogram::reset);
+        CANDIDATES.reset();
+        HITS.values().forEach(count -> count.set(0));
+        MISSES.values().forEach(count -> count.set(0));
+    }
+
+    private static Map<String, Object> summarize(Histogram histogram, double scale) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", histogram.getCount());
+        result.put("p50", round(histogram.getValueAtPercentile(50) * scale));
+        result.put("p95", round(histogram.getValueAtPercentile(95) * scale));
+        result.put("p99", round(histogram.getValueAtPercentile(99) * scale));
+        result.put("max", round(histogram.getMax() * scale));
+        return result;
+    }
+
+    private static long getCount(Map<String, AtomicLong> counts, String cache) {
+        AtomicLong count = counts.get(cache);
+        return count != null ? count.get() : 0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.completionprovider.Completor;
+
+/**
+ * Maps an annotation member to the completor contributed for it through the
+ * {@code completors} extension point.
+ */
+public final class CompletorRegistry {
+    private CompletorRegistry() {
+    }
+
+    private static final String EXTENSION_POINT_ID = "io.github.enbrain.jdtls.spongepowered.mixin.plugin.completors";
+
+    private static Map<Key, Completor> completors;
+
+    private static Set<Key> simpleKeys;
+
+    public static Completor get(String annotationName, String member) {
+        return getCompletors().get(new Key(annotationName, member));
+    }
+
+    /**
+     * Returns whether an annotation written with the given simple name may have
+     * a completor for the given member. Used before bindings are resolved.
+     */
+    public static boolean mayComplete(String simpleName, String member) {
+        getCompletors();
+        return simpleKeys.contains(new Key(simpleName, member));
+    }
+
+    private static synchronized Map<Key, Completor> getCompletors() {
+        if (completors == null) {
+            Map<Key, Completor> result = new HashMap<>();
+            Set<Key> simpleResult = new HashSet<>();
+
+            for (IConfigurationElement element : Platform.getExtensionRegistry()
+                    .getConfigurationElementsFor(EXTENSION_POINT_ID)) {
+                try {
+                    Completor completor = (Completor) element.createExecutableExtension("class");
+                    for (IConfigurationElement child : element.getChildren("annotation")) {
+                        String name = child.getAttribute("name");
+                        String member = child.getAttribute("member");
+                        result.put(new Key(name, member), completor);
+                        simpleResult.add(new Key(name.substring(name.lastIndexOf('.') + 1), member));
+                    }
+                } catch (CoreException e) {
+                    JavaLanguageServerPlugin.logException("Failed to load mixin completor", e);
+                }
+            }
+
+            simpleKeys = simpleResult;
+            completors = result;
+        }
+        return completors;
+    }
+
+    private record Key(String annotationName, String member) {
+    }
+}
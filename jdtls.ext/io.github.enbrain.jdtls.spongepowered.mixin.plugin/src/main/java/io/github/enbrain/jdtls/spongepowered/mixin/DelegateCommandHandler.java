@@ -1,11 +1,14 @@
 package io.github.enbrain.jdtls.spongepowered.mixin;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.ls.core.internal.IDelegateCommandHandler;
 
+import io.github.enbrain.jdtls.spongepowered.mixin.index.PreindexJob;
+
 public class DelegateCommandHandler implements IDelegateCommandHandler {
     @Override
     public Object executeCommand(String commandId, List<Object> arguments, IProgressMonitor monitor) throws Exception {
@@ -13,7 +16,25 @@ public class DelegateCommandHandler implements IDelegateCommandHandler {
             String uri = (String) arguments.get(0);
             int line = (int) (double) arguments.get(1);
             int column = (int) (double) arguments.get(2);
-            return CompletionHandler.complete(uri, line, column);
+            long requestId = arguments.size() > 3 ? (long) (double) arguments.get(3)
+                    : RequestScheduler.newUntrackedId();
+            long timeout = arguments.size() > 4 ? (long) (double) arguments.get(4) : 0;
+            return CompletionHandler.complete(uri, line, column, requestId, timeout, monitor);
+        } else if (Objects.equals(commandId, "spongepowered.mixin.handlers")) {
+            String uri = (String) arguments.get(0);
+            return HandlerFinder.find(uri);
+        } else if (Objects.equals(commandId, "spongepowered.mixin.cancel")) {
+            String uri = (String) arguments.get(0);
+            long requestId = (long) (double) arguments.get(1);
+            RequestScheduler.cancel(uri, requestId);
+        } else if (Objects.equals(commandId, "spongepowered.mixin.stats")) {
+            Map<String, Object> stats = CompletionStats.getSnapshot();
+            if (!arguments.isEmpty() && Boolean.TRUE.equals(arguments.get(0))) {
+                CompletionStats.reset();
+            }
+            return stats;
+        } else if (Objects.equals(commandId, "spongepowered.mixin.preindex")) {
+            PreindexJob.start();
         }
         return null;
     }
@@ -0,0 +1,108 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IClassFile;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.index.IndexManager;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MixinIndex;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MixinIndexJob;
+
+/**
+ * Drops cached data that a change of the Java model has made stale.
+ *
+ * <p>
+ * The completion session is only dropped when the classpath or the structure
+ * of types changes, since it already checks the text of the document itself
+ * and edits elsewhere do not affect its candidates.
+ */
+public class ElementChangedListener implements IElementChangedListener {
+    private static final int CLASSPATH_CHANGED = IJavaElementDelta.F_CLASSPATH_CHANGED
+            | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED;
+
+    private static final int ROOT_CHANGED = IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED
+            | IJavaElementDelta.F_ADDED_TO_CLASSPATH
+            | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH;
+
+    @Override
+    public void elementChanged(ElementChangedEvent event) {
+        this.visit(event.getDelta());
+    }
+
+    private void visit(IJavaElementDelta delta) {
+        IJavaElement element = delta.getElement();
+
+        switch (element.getElementType()) {
+            case IJavaElement.JAVA_MODEL:
+                break;
+            case IJavaElement.JAVA_PROJECT:
+                if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & CLASSPATH_CHANGED) != 0) {
+                    this.clear();
+                    return;
+                }
+                break;
+            case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+                if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ROOT_CHANGED) != 0) {
+                    IndexManager.remove((IPackageFragmentRoot) element);
+                    this.clearTypes();
+                    return;
+                }
+                break;
+            case IJavaElement.PACKAGE_FRAGMENT:
+                if (delta.getKind() != IJavaElementDelta.CHANGED) {
+                    IndexManager.removeClassNames(element);
+                    this.clearTypes();
+                }
+                break;
+            case IJavaElement.COMPILATION_UNIT:
+                IndexManager.remove((ICompilationUnit) element);
+                if (delta.getKind() == IJavaElementDelta.REMOVED) {
+                    MixinIndex.remove((ICompilationUnit) element);
+                } else if (delta.getKind() == IJavaElementDelta.ADDED
+                        || (delta.getFlags() & IJavaElementDelta.F_CONTENT) != 0) {
+                    MixinIndexJob.update((ICompilationUnit) element);
+                }
+                if (delta.getKind() != IJavaElementDelta.CHANGED
+                        || (delta.getFlags() & IJavaElementDelta.F_CHILDREN) != 0) {
+                    this.clearTypes();
+                }
+                return;
+            case IJavaElement.CLASS_FILE:
+                IndexManager.remove((IClassFile) element);
+                CompletionSession.clear();
+                if (delta.getKind() != IJavaElementDelta.CHANGED) {
+                    IndexManager.removeClassNames(element);
+                    this.clearTypes();
+                }
+                return;
+            default:
+                return;
+        }
+
+        for (IJavaElementDelta child : delta.getAffectedChildren()) {
+            this.visit(child);
+        }
+    }
+
+    private void clear() {
+        IndexManager.clear();
+        ASTCache.clear();
+        Util.clearTypeCache();
+        CompletionSession.clear();
+    }
+
+    /**
+     * Drops what depends on the set or structure of types, including the
+     * cached ASTs, whose bindings may refer to types that no longer exist.
+     */
+    private void clearTypes() {
+        ASTCache.clear();
+        Util.clearTypeCache();
+        IndexManager.clearSupertypes();
+        CompletionSession.clear();
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.NodeFinder;
+import org.eclipse.jdt.core.dom.StringLiteral;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.Util.AnnotationMember;
+
+/**
+ * Decides with a syntax-only parse whether a completion request is inside a
+ * string literal of an annotation member that has a completor, before any
+ * binding is resolved.
+ */
+public final class FocusFinder {
+    private FocusFinder() {
+    }
+
+    /**
+     * Returns the focus for the binding-resolving parse, or {@code null} if the
+     * offset cannot be a mixin completion.
+     */
+    public static Focus find(String source, int offset) {
+        if (!source.contains("spongepowered") && !source.contains("mixinextras")) {
+            return null;
+        }
+
+        ASTParser parser = ASTParser.newParser(AST.JLS18);
+        parser.setSource(source.toCharArray());
+        parser.setResolveBindings(false);
+        parser.setFocalPosition(offset);
+        ASTCache.setCompilerOptions(parser);
+        ASTNode root = parser.createAST(new NullProgressMonitor());
+
+        ASTNode current = NodeFinder.perform(root, offset, 1);
+        if (!(current instanceof StringLiteral)) {
+            return null;
+        }
+
+        AnnotationMember annotationMember = Util.getAnnotationMember(current);
+        if (annotationMember == null) {
+            return null;
+        }
+
+        Annotation annotation = annotationMember.annotation();
+        String simpleName = getSimpleName(annotation.getTypeName().getFullyQualifiedName());
+        if (!CompletorRegistry.mayComplete(simpleName, annotationMember.member())
+                || Util.getEnclosingNode(root, annotation, n -> n instanceof TypeDeclaration) == null) {
+            return null;
+        }
+
+        Block body = (Block) Util.getEnclosingNode(root, annotation, n -> n instanceof Block);
+        return new Focus(offset, body != null ? body.getStartPosition() : -1, current.getStartPosition() + 1,
+                current.getStartPosition() + current.getLength() - 1);
+    }
+
+    private static String getSimpleName(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * @param offset       the completion offset, used as the focal position
+     * @param bodyStart    the start of the method body enclosing the offset, or
+     *                     {@code -1} if the offset is outside of any body
+     * @param contentStart the start of the content of the string literal
+     * @param contentEnd   the end of the content of the string literal
+     */
+    public record Focus(int offset, int bodyStart, int contentStart, int contentEnd) {
+    }
+}
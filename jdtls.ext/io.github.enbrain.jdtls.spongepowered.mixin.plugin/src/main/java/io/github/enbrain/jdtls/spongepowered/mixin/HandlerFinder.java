@@ -0,0 +1,89 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IOrdinaryClassFile;
+import org.eclipse.jdt.core.ISourceRange;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.handlers.JsonRpcHelpers;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MixinIndex;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MixinIndex.Handler;
+
+/**
+ * Finds the mixins and handler methods that target the classes and methods of
+ * a document, for references and code lenses.
+ */
+public final class HandlerFinder {
+    private HandlerFinder() {
+    }
+
+    /**
+     * A class or method of the document and what targets it.
+     *
+     * @param member    the name of the class or method
+     * @param line      the zero-based line of the name
+     * @param character the zero-based character of the name
+     * @param length    the length of the name
+     */
+    public record Target(String member, int line, int character, int length, List<Handler> handlers) {
+    }
+
+    /**
+     * Returns the targeted classes and methods of the document at {@code uri}
+     * that have a name in its source. Each of them is a lookup in the
+     * {@link MixinIndex}.
+     */
+    public static List<Target> find(String uri) throws JavaModelException {
+        ITypeRoot typeRoot = JDTUtils.resolveTypeRoot(uri);
+        List<Target> result = new ArrayList<>();
+        if (typeRoot == null) {
+            return result;
+        }
+
+        IType[] types;
+        if (typeRoot instanceof ICompilationUnit unit) {
+            types = unit.getAllTypes();
+        } else if (typeRoot instanceof IOrdinaryClassFile classFile) {
+            types = new IType[] { classFile.getType() };
+        } else {
+            return result;
+        }
+
+        IBuffer buffer = typeRoot.getBuffer();
+        for (IType type : types) {
+            String className = type.getFullyQualifiedName('$').replace('.', '/');
+            add(result, buffer, type, MixinIndex.get(className));
+            for (IMethod method : type.getMethods()) {
+                String name = method.isConstructor() ? "<init>" : method.getElementName();
+                add(result, buffer, method, MixinIndex.get(MixinIndex.getKey(className, name)));
+            }
+        }
+        return result;
+    }
+
+    private static void add(List<Target> result, IBuffer buffer, IMember member, List<Handler> handlers)
+            throws JavaModelException {
+        if (handlers.isEmpty() || buffer == null) {
+            return;
+        }
+
+        ISourceRange range = member.getNameRange();
+        if (range == null || range.getOffset() < 0) {
+            return;
+        }
+
+        int[] position = JsonRpcHelpers.toLine(buffer, range.getOffset());
+        if (position != null) {
+            result.add(new Target(member.getElementName(), position[0], position[1], range.getLength(), handlers));
+        }
+    }
+}
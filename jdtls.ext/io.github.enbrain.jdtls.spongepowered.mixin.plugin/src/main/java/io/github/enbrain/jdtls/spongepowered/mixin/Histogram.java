@@ -0,0 +1,80 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative values, in the spirit of
+ * HdrHistogram. Every power of two is split into {@link #SUB_BUCKETS} linear
+ * buckets, so a percentile is off by at most 1/16 of its value while the
+ * whole histogram takes a few KB.
+ */
+final class Histogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long value) {
+        value = Math.max(value, 0);
+        this.counts.incrementAndGet(getIndex(value));
+        this.max.accumulateAndGet(value, Math::max);
+    }
+
+    long getMax() {
+        return this.max.get();
+    }
+
+    long getCount() {
+        long result = 0;
+        for (int i = 0; i < this.counts.length(); i++) {
+            result += this.counts.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the value at or below which {@code percentile} percent of the
+     * recorded values are, or {@code 0} if there are none.
+     */
+    long getValueAtPercentile(double percentile) {
+        long count = this.getCount();
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < this.counts.length(); i++) {
+            seen += this.counts.get(i);
+            if (seen >= rank) {
+                return Math.min(getHighestValue(i), this.getMax());
+            }
+        }
+        return 0;
+    }
+
+    void reset() {
+        for (int i = 0; i < this.counts.length(); i++) {
+            this.counts.set(i, 0);
+        }
+        this.max.set(0);
+    }
+
+    private static int getIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long getHighestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
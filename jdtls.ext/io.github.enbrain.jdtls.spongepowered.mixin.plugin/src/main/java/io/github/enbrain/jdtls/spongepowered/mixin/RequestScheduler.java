@@ -0,0 +1,95 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.ProgressMonitorWrapper;
+
+/**
+ * Tracks the latest completion request of every document, so a request gives
+ * up as soon as a newer one for the same document arrives or the client
+ * cancels it.
+ *
+ * <p>
+ * Requests are identified by increasing ids assigned by the client, so a
+ * cancellation that arrives late never cancels a newer request. A document is
+ * only tracked while one of its requests is running. Clients that do not send
+ * ids get {@linkplain #newUntrackedId untracked} ones, which never supersede
+ * or get superseded.
+ */
+public final class RequestScheduler {
+    private RequestScheduler() {
+    }
+
+    private static final Map<String, Requests> REQUESTS = new ConcurrentHashMap<>();
+
+    private static final AtomicLong UNTRACKED_IDS = new AtomicLong();
+
+    /**
+     * The running requests of a document. Only changed inside the atomic
+     * operations of {@link #REQUESTS}.
+     */
+    private static final class Requests {
+        private final AtomicLong latest = new AtomicLong(Long.MIN_VALUE);
+        private int running;
+    }
+
+    /**
+     * Starts request {@code id} for {@code uri}, superseding older ones. The
+     * returned monitor is canceled once {@code monitor} is or the request is
+     * superseded or canceled. An untracked request is only canceled with
+     * {@code monitor}. Every call must be followed by {@link #end}.
+     */
+    public static IProgressMonitor begin(String uri, long id, IProgressMonitor monitor) {
+        if (id < 0) {
+            return monitor != null ? monitor : new NullProgressMonitor();
+        }
+
+        AtomicLong latest = REQUESTS.compute(uri, (k, requests) -> {
+            requests = requests != null ? requests : new Requests();
+            requests.running++;
+            requests.latest.accumulateAndGet(id, Math::max);
+            return requests;
+        }).latest;
+
+        return new ProgressMonitorWrapper(monitor != null ? monitor : new NullProgressMonitor()) {
+            @Override
+            public boolean isCanceled() {
+                return latest.get() != id || super.isCanceled();
+            }
+        };
+    }
+
+    /**
+     * Ends a request started by {@link #begin}, forgetting the document once
+     * none of its requests is running.
+     */
+    public static void end(String uri, long id) {
+        if (id < 0) {
+            return;
+        }
+        REQUESTS.computeIfPresent(uri, (k, requests) -> --requests.running > 0 ? requests : null);
+    }
+
+    /**
+     * Returns a new id for a request of a client that does not send ids. It is
+     * below zero, so the request is not tracked.
+     */
+    public static long newUntrackedId() {
+        return UNTRACKED_IDS.decrementAndGet();
+    }
+
+    /**
+     * Cancels request {@code id} for {@code uri}, unless it has already been
+     * superseded or has finished.
+     */
+    public static void cancel(String uri, long id) {
+        REQUESTS.computeIfPresent(uri, (k, requests) -> {
+            requests.latest.accumulateAndGet(id + 1, Math::max);
+            return requests;
+        });
+    }
+}
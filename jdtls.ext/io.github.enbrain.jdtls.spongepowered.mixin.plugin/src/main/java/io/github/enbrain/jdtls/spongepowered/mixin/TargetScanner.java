@@ -0,0 +1,135 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * Scans the target classes of a mixin in parallel.
+ *
+ * <p>
+ * Each target class is scanned on a shared pool bounded by the number of
+ * cores, so a mixin with many targets takes about as long as its slowest
+ * target. The results are still passed on in the order of the targets, which
+ * keeps the candidates the same from one request to the next.
+ */
+public final class TargetScanner {
+    private static final int PARALLELISM = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(PARALLELISM, runnable -> {
+        Thread thread = new Thread(runnable, "Mixin Target Scan");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Scans a single target class. It is called from the threads of the pool,
+     * so it must not touch the AST.
+     */
+    public interface Scan<T> {
+        T scan(IType target) throws JavaModelException;
+    }
+
+    private TargetScanner() {
+    }
+
+    /**
+     * Scans every target class with {@code scan}, passing the results to
+     * {@code consumer} in the order of {@code targets}.
+     *
+     * <p>
+     * A result is passed on as soon as the results of all earlier targets have
+     * been, so partial results are available before the slowest target is done.
+     * {@code consumer} is never called concurrently. If a scan fails, the
+     * remaining scans are abandoned and its exception is rethrown.
+     */
+    public static <T> void scan(List<IType> targets, Scan<T> scan, Consumer<T> consumer) throws JavaModelException {
+        if (targets.size() <= 1 || PARALLELISM == 1) {
+            for (IType target : targets) {
+                consumer.accept(scan.scan(target));
+            }
+            return;
+        }
+
+        Merger<T> merger = new Merger<>(targets.size(), consumer);
+        List<Future<?>> futures = new ArrayList<>(targets.size());
+        for (int i = 0; i < targets.size(); i++) {
+            int index = i;
+            IType target = targets.get(i);
+            futures.add(EXECUTOR.submit(() -> {
+                merger.complete(index, scan.scan(target));
+                return null;
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            merger.abandon();
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new OperationCanceledException();
+        } catch (ExecutionException e) {
+            merger.abandon();
+            cancel(futures);
+            if (e.getCause() instanceof JavaModelException cause) {
+                throw cause;
+            } else if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            } else if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void cancel(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Passes on the results of the scans in the order of their targets.
+     */
+    private static final class Merger<T> {
+        private final Object[] results;
+        private final boolean[] completed;
+        private final Consumer<T> consumer;
+        private int next;
+
+        Merger(int size, Consumer<T> consumer) {
+            this.results = new Object[size];
+            this.completed = new boolean[size];
+            this.consumer = consumer;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized void complete(int index, T result) {
+            this.results[index] = result;
+            this.completed[index] = true;
+            while (this.next < this.results.length && this.completed[this.next]) {
+                this.consumer.accept((T) this.results[this.next]);
+                this.results[this.next] = null;
+                this.next++;
+            }
+        }
+
+        /**
+         * Drops the results of the scans that are still running.
+         */
+        synchronized void abandon() {
+            this.next = this.results.length;
+        }
+    }
+}
@@ -1,19 +1,27 @@
 package io.github.enbrain.jdtls.spongepowered.mixin;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
-import org.eclipse.jdt.core.IField;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeParameter;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.Signature;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.ArrayInitializer;
+import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.IAnnotationBinding;
 import org.eclipse.jdt.core.dom.IMemberValuePairBinding;
 import org.eclipse.jdt.core.dom.ITypeBinding;
@@ -21,9 +29,11 @@ import org.eclipse.jdt.core.dom.MemberValuePair;
 import org.eclipse.jdt.core.dom.NormalAnnotation;
 import org.eclipse.jdt.core.dom.SingleMemberAnnotation;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
-import org.eclipse.jdt.internal.core.JavaElement;
 import org.eclipse.jdt.ls.core.internal.ProjectUtils;
-import org.objectweb.asm.Opcodes;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.index.DeclaredMembers;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.IndexManager;
+import io.github.enbrain.jdtls.spongepowered.mixin.jfr.TargetResolutionEvent;
 
 public final class Util {
     private Util() {
@@ -31,7 +41,7 @@ public final class Util {
 
     public static final String JAVA_VERSION = JavaCore.VERSION_18;
 
-    public static final int ASM_VERSION = Opcodes.ASM9;
+    private static final Map<String, Optional<IType>> TYPE_CACHE = new ConcurrentHashMap<>();
 
     public static final Set<String> INJECTORS = Set.of(
             "org.spongepowered.asm.mixin.injection.Inject",
@@ -60,6 +70,10 @@ public final class Util {
 
     public static final int FIELD_ITEM = 4;
 
+    public static final int VARIABLE_ITEM = 5;
+
+    public static final int CLASS_ITEM = 6;
+
     public static final int VALUE_ITEM = 11;
 
     public static final List<String> INJECTION_POINT_TYPES = List.of(
@@ -74,46 +88,101 @@ public final class Util {
             "JUMP",
             "CONSTANT");
 
-    public static Annotation getAnnotationFromMember(ASTNode node, String member) {
-        if (node instanceof MemberValuePair pair
-                && pair.getName().getIdentifier().equals(member)
-                && pair.getParent() instanceof NormalAnnotation annotation) {
-            return annotation;
+    /**
+     * Returns the annotation member whose value is {@code literal}, either
+     * directly or as an element of an array.
+     */
+    public static AnnotationMember getAnnotationMember(ASTNode literal) {
+        ASTNode parent = literal.getParent();
+        if (parent instanceof ArrayInitializer) {
+            parent = parent.getParent();
+        }
+
+        if (parent instanceof MemberValuePair pair && pair.getParent() instanceof NormalAnnotation annotation) {
+            return new AnnotationMember(annotation, pair.getName().getIdentifier());
         }
 
-        if (member.equals("value") && node instanceof SingleMemberAnnotation annotation) {
-            return annotation;
+        if (parent instanceof SingleMemberAnnotation annotation) {
+            return new AnnotationMember(annotation, "value");
         }
 
         return null;
     }
 
-    public static List<IType> getTargetClasses(ASTNode root, ASTNode node) throws JavaModelException {
-        List<IType> result = new ArrayList<>();
+    @SuppressWarnings("unchecked")
+    public static Expression getMemberValue(Annotation annotation, String member) {
+        if (annotation instanceof NormalAnnotation normalAnnotation) {
+            for (MemberValuePair pair : (List<MemberValuePair>) normalAnnotation.values()) {
+                if (pair.getName().getIdentifier().equals(member)) {
+                    return pair.getValue();
+                }
+            }
+        }
+        if (member.equals("value") && annotation instanceof SingleMemberAnnotation singleMemberAnnotation) {
+            return singleMemberAnnotation.getValue();
+        }
+
+        return null;
+    }
 
+    /**
+     * Returns the constant value of {@code expression}, or {@code null} if it
+     * is missing or not a constant.
+     */
+    public static Object getConstant(Expression expression) {
+        return expression != null ? expression.resolveConstantExpressionValue() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<Expression> getElements(Expression expression) {
+        if (expression instanceof ArrayInitializer array) {
+            return array.expressions();
+        }
+        return expression != null ? List.of(expression) : List.of();
+    }
+
+    public static List<IType> getTargetClasses(ASTNode root, ASTNode node, IProgressMonitor monitor)
+            throws JavaModelException {
         TypeDeclaration typeDeclaration = getEnclosingClass(root, node);
         if (typeDeclaration != null) {
-            ITypeBinding classBinding = typeDeclaration.resolveBinding();
-            IAnnotationBinding[] classAnnotations = classBinding.getAnnotations();
-            for (IAnnotationBinding annotation : classAnnotations) {
-                String name = annotation.getAnnotationType().getQualifiedName();
-                if (name.equals(MIXIN_ANNOTATION)) {
-                    for (IMemberValuePairBinding pair : annotation.getAllMemberValuePairs()) {
-                        if (pair.getName().equals("value")) {
-                            Object[] targets = (Object[]) pair.getValue();
-                            for (Object target : targets) {
-                                if (target instanceof ITypeBinding targetBinding) {
-                                    result.add((IType) targetBinding.getJavaElement());
-                                }
+            return getTargetClasses(typeDeclaration.resolveBinding(), monitor);
+        }
+
+        return new ArrayList<>();
+    }
+
+    /**
+     * Returns the targets of the {@code @Mixin} annotation of a class, giving up
+     * with {@link OperationCanceledException} once {@code monitor} is canceled.
+     */
+    public static List<IType> getTargetClasses(ITypeBinding classBinding, IProgressMonitor monitor)
+            throws JavaModelException {
+        TargetResolutionEvent event = new TargetResolutionEvent();
+        event.begin();
+        List<IType> result = new ArrayList<>();
+
+        IAnnotationBinding[] classAnnotations = classBinding.getAnnotations();
+        for (IAnnotationBinding annotation : classAnnotations) {
+            String name = annotation.getAnnotationType().getQualifiedName();
+            if (name.equals(MIXIN_ANNOTATION)) {
+                for (IMemberValuePairBinding pair : annotation.getAllMemberValuePairs()) {
+                    if (pair.getName().equals("value")) {
+                        Object[] targets = (Object[]) pair.getValue();
+                        for (Object target : targets) {
+                            if (target instanceof ITypeBinding targetBinding) {
+                                result.add((IType) targetBinding.getJavaElement());
                             }
-                        } else if (pair.getName().equals("targets")) {
-                            Object[] targets = (Object[]) pair.getValue();
-                            for (Object target : targets) {
-                                if (target instanceof String targetString) {
-                                    for (IType type : findTypes(targetString)) {
-                                        result.add(type);
-                                        break;
-                                    }
+                        }
+                    } else if (pair.getName().equals("targets")) {
+                        Object[] targets = (Object[]) pair.getValue();
+                        for (Object target : targets) {
+                            if (monitor.isCanceled()) {
+                                throw new OperationCanceledException();
+                            }
+                            if (target instanceof String targetString) {
+                                IType type = findType(targetString);
+                                if (type != null) {
+                                    result.add(type);
                                 }
                             }
                         }
@@ -122,6 +191,7 @@ public final class Util {
             }
         }
 
+        event.finish(classBinding, result.size());
         return result;
     }
 
@@ -133,70 +203,184 @@ public final class Util {
         return predicate.test(node) ? node : null;
     }
 
-    public static List<String> collectFields(List<IType> targetClasses) throws JavaModelException {
-        Set<String> result = new HashSet<>();
+    /**
+     * Returns the names of the fields that a target class declares or
+     * inherits, which may repeat. Private and interface fields of supertypes
+     * are left out.
+     */
+    public static List<String> collectFields(IType target) throws JavaModelException {
+        return collectMembers(target, DeclaredMembers::fields, DeclaredMembers::inheritedFields);
+    }
 
-        for (IType target : targetClasses) {
-            if (target instanceof JavaElement element) {
-                for (Object object : element.getChildrenOfType(8)) {
-                    if (object instanceof IField f) {
-                        result.add(f.getElementName());
-                    }
-                }
-            }
+    /**
+     * Returns the names of the methods that a target class declares or
+     * inherits, which may repeat. Constructors are named {@code <init>}. The
+     * constructors, private methods and static interface methods of supertypes
+     * are left out.
+     */
+    public static List<String> collectMethods(IType target) throws JavaModelException {
+        return collectMembers(target, DeclaredMembers::methods, DeclaredMembers::inheritedMethods);
+    }
+
+    private static List<String> collectMembers(IType target, Function<DeclaredMembers, List<String>> declared,
+            Function<DeclaredMembers, List<String>> inherited) throws JavaModelException {
+        List<String> result = new ArrayList<>(declared.apply(IndexManager.getDeclaredMembers(target)));
+        for (IType supertype : IndexManager.getSupertypes(target)) {
+            result.addAll(inherited.apply(IndexManager.getDeclaredMembers(supertype)));
         }
+        return result;
+    }
+
+    /**
+     * Returns the descriptor of a source method, with its types erased and
+     * resolved against the declaring type.
+     */
+    public static String getDescriptor(IMethod method) throws JavaModelException {
+        StringBuilder result = new StringBuilder("(");
+        for (String parameterType : method.getParameterTypes()) {
+            appendDescriptor(result, method, parameterType);
+        }
+        result.append(')');
+        appendDescriptor(result, method, method.getReturnType());
+        return result.toString();
+    }
 
-        return List.copyOf(result);
+    /**
+     * Returns the descriptor of the erasure of a resolved type.
+     */
+    public static String getDescriptor(ITypeBinding type) {
+        if (type.isArray()) {
+            return "[".repeat(type.getDimensions()) + getDescriptor(type.getElementType());
+        }
+        if (type.isPrimitive()) {
+            return switch (type.getQualifiedName()) {
+                case "boolean" -> "Z";
+                case "byte" -> "B";
+                case "char" -> "C";
+                case "short" -> "S";
+                case "int" -> "I";
+                case "long" -> "J";
+                case "float" -> "F";
+                case "double" -> "D";
+                default -> "V";
+            };
+        }
+        return "L" + type.getErasure().getBinaryName().replace('.', '/') + ";";
     }
 
-    public static List<String> collectMethods(List<IType> targetClasses) throws JavaModelException {
-        Set<String> result = new HashSet<>();
+    private static void appendDescriptor(StringBuilder result, IMethod method, String signature)
+            throws JavaModelException {
+        String erasure = Signature.getTypeErasure(signature);
+        result.append("[".repeat(Signature.getArrayCount(erasure)));
+
+        String elementType = Signature.getElementType(erasure);
+        if (Signature.getTypeSignatureKind(elementType) == Signature.BASE_TYPE_SIGNATURE) {
+            result.append(elementType);
+            return;
+        }
+
+        String name = Signature.toString(elementType);
+        String bound = getTypeVariableBound(method, name);
+        if (bound != null) {
+            appendDescriptor(result, method, Signature.createTypeSignature(bound, false));
+            return;
+        }
 
-        for (IType target : targetClasses) {
-            for (IMethod method : target.getMethods()) {
-                result.add(method.isConstructor() ? "<init>" : method.getElementName());
+        String[][] resolved = elementType.charAt(0) == Signature.C_UNRESOLVED
+                ? method.getDeclaringType().resolveType(name)
+                : null;
+        if (resolved != null && resolved.length > 0) {
+            String packageName = resolved[0][0];
+            result.append('L');
+            if (!packageName.isEmpty()) {
+                result.append(packageName.replace('.', '/')).append('/');
             }
+            result.append(resolved[0][1].replace('.', '$')).append(';');
+        } else {
+            result.append('L').append(name.replace('.', '/')).append(';');
+        }
+    }
+
+    /**
+     * Returns the first bound of the type variable {@code name} visible from
+     * {@code method}, {@code Object} if it has none, or {@code null} if there
+     * is no such type variable.
+     */
+    private static String getTypeVariableBound(IMethod method, String name) throws JavaModelException {
+        if (name.indexOf('.') >= 0) {
+            return null;
+        }
+
+        List<ITypeParameter> typeParameters = new ArrayList<>(List.of(method.getTypeParameters()));
+        for (IType type = method.getDeclaringType(); type != null; type = type.getDeclaringType()) {
+            typeParameters.addAll(List.of(type.getTypeParameters()));
         }
 
-        return List.copyOf(result);
+        for (ITypeParameter typeParameter : typeParameters) {
+            if (typeParameter.getElementName().equals(name)) {
+                String[] bounds = typeParameter.getBounds();
+                return bounds.length > 0 ? bounds[0] : "java.lang.Object";
+            }
+        }
+        return null;
     }
 
     private static TypeDeclaration getEnclosingClass(ASTNode root, ASTNode node) {
         return (TypeDeclaration) getEnclosingNode(root, node, n -> n instanceof TypeDeclaration);
     }
 
-    private static List<IType> findTypes(String className) throws JavaModelException {
-        List<IType> result = new ArrayList<>();
+    /**
+     * Returns the first type named {@code className} on the classpath of any
+     * project. The name may use {@code /} and {@code $} as in
+     * {@code @Mixin(targets = ...)}. Results are cached until
+     * {@link #clearTypeCache()}.
+     */
+    public static IType findType(String className) throws JavaModelException {
+        Optional<IType> type = TYPE_CACHE.get(className);
+        if (type == null) {
+            type = Optional.ofNullable(resolveType(className));
+            TYPE_CACHE.put(className, type);
+        }
+        return type.orElse(null);
+    }
+
+    public static void clearTypeCache() {
+        TYPE_CACHE.clear();
+    }
 
-        String name = className.replace("/", ".").replace("$", ".");
+    private static IType resolveType(String className) throws JavaModelException {
+        String name = className.replace('/', '.');
+        int nestedStart = name.indexOf('$');
+        String topLevelName = nestedStart >= 0 ? name.substring(0, nestedStart) : name;
 
         for (IJavaProject project : ProjectUtils.getJavaProjects()) {
-            IType type = findType(project, name);
+            IType type = project.findType(topLevelName);
+            if (type != null && nestedStart >= 0) {
+                type = getNestedType(type, name.substring(nestedStart + 1));
+            }
             if (type != null) {
-                result.add(type);
+                return type;
             }
         }
 
-        return result;
+        return null;
     }
 
-    private static IType findType(IJavaProject project, String className) throws JavaModelException {
-        IType type = project.findType(className);
-        if (type != null) {
-            return type;
-        }
-
-        int i = className.lastIndexOf('.');
-        if (i > 0) {
-            IType outerType = findType(project, className.substring(0, i));
-            if (outerType != null) {
-                IType innerType = outerType.getType(className.substring(i + 1));
-                if (innerType != null) {
-                    return innerType;
-                }
+    private static IType getNestedType(IType topLevelType, String nestedName) {
+        IType type;
+        if (topLevelType.isBinary()) {
+            type = topLevelType.getPackageFragment()
+                    .getOrdinaryClassFile(topLevelType.getElementName() + "$" + nestedName + ".class")
+                    .getType();
+        } else {
+            type = topLevelType;
+            for (String segment : nestedName.split("\\$")) {
+                type = type.getType(segment);
             }
         }
+        return type.exists() ? type : null;
+    }
 
-        return null;
+    public record AnnotationMember(Annotation annotation, String member) {
     }
 }
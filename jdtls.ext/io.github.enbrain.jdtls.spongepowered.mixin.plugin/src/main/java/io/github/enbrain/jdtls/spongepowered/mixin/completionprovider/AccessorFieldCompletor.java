@@ -12,13 +12,8 @@ import io.github.enbrain.jdtls.spongepowered.mixin.Util;
  */
 public class AccessorFieldCompletor extends AccessorOrInvokerMemberCompletor {
     @Override
-    protected String getAnnotationClassName() {
-        return Util.ACCESSOR_ANNOTATION;
-    }
-
-    @Override
-    protected List<String> collectMembers(List<IType> targetClasses) throws JavaModelException {
-        return Util.collectFields(targetClasses);
+    protected List<String> collectMembers(IType target) throws JavaModelException {
+        return Util.collectFields(target);
     }
 
     @Override
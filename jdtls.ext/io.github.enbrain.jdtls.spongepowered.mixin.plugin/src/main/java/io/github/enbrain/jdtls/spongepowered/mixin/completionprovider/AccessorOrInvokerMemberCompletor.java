@@ -5,41 +5,26 @@ import java.util.List;
 
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
-import org.eclipse.jdt.core.dom.ASTNode;
-import org.eclipse.jdt.core.dom.Annotation;
-import org.eclipse.jdt.core.dom.ITypeBinding;
-import org.eclipse.jdt.core.dom.StringLiteral;
 
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionContext;
 import io.github.enbrain.jdtls.spongepowered.mixin.CompletionItem;
-import io.github.enbrain.jdtls.spongepowered.mixin.Util;
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionSink;
+import io.github.enbrain.jdtls.spongepowered.mixin.TargetScanner;
 
 public abstract class AccessorOrInvokerMemberCompletor implements Completor {
     @Override
-    public List<CompletionItem> complete(ASTNode root, ASTNode current) throws JavaModelException {
-        List<CompletionItem> result = new ArrayList<>();
-
-        if (current instanceof StringLiteral) {
-            Annotation annotation = Util.getAnnotationFromMember(current.getParent(), "value");
-            if (annotation != null) {
-                ITypeBinding annotationType = annotation.getTypeName().resolveTypeBinding();
-                if (annotationType != null) {
-                    String annotationName = annotationType.getQualifiedName();
-                    if (annotationName.equals(this.getAnnotationClassName())) {
-                        List<IType> targetClasses = Util.getTargetClasses(root, annotation);
-                        for (String member : this.collectMembers(targetClasses)) {
-                            result.add(new CompletionItem(member, this.getCompletionItemKind()));
-                        }
-                    }
-                }
+    public void complete(CompletionContext context, CompletionSink sink) throws JavaModelException {
+        TargetScanner.scan(context.getTargetClasses(), target -> {
+            List<String> members = this.collectMembers(target);
+            List<CompletionItem> items = new ArrayList<>(members.size());
+            for (String member : members) {
+                items.add(new CompletionItem(member, this.getCompletionItemKind()));
             }
-        }
-
-        return result;
+            return items;
+        }, sink::addAll);
     }
 
-    protected abstract String getAnnotationClassName();
-
-    protected abstract List<String> collectMembers(List<IType> targetClasses) throws JavaModelException;
+    protected abstract List<String> collectMembers(IType target) throws JavaModelException;
 
     protected abstract int getCompletionItemKind();
 }
@@ -1,12 +1,19 @@
 package io.github.enbrain.jdtls.spongepowered.mixin.completionprovider;
 
-import java.util.List;
-
 import org.eclipse.jdt.core.JavaModelException;
-import org.eclipse.jdt.core.dom.ASTNode;
 
-import io.github.enbrain.jdtls.spongepowered.mixin.CompletionItem;
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionContext;
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionSink;
 
+/**
+ * Completes a string literal in the annotation members the completor is
+ * registered for through the {@code completors} extension point.
+ *
+ * <p>
+ * Items are added to the sink as soon as they are found, for example after
+ * every target class, since a request may return the items found so far when
+ * its deadline passes.
+ */
 public interface Completor {
-    public List<CompletionItem> complete(ASTNode root, ASTNode current) throws JavaModelException;
+    public void complete(CompletionContext context, CompletionSink sink) throws JavaModelException;
 }
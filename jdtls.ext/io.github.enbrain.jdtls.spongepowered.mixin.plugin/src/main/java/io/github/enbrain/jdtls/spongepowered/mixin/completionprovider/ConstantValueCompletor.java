@@ -0,0 +1,39 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.completionprovider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.Annotation;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionContext;
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionSink;
+import io.github.enbrain.jdtls.spongepowered.mixin.Util;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodIndex.Candidate;
+
+/**
+ * Provides completion items for {@code @Constant(stringValue = "...")}.
+ */
+public class ConstantValueCompletor implements Completor {
+    private static final String PREFIX = "stringValue=";
+
+    @Override
+    public void complete(CompletionContext context, CompletionSink sink) throws JavaModelException {
+        Annotation constantAnnotation = context.getAnnotation();
+        Annotation injectorAnnotation = TargetMethods.getEnclosingInjector(context.getRoot(), constantAnnotation);
+        if (injectorAnnotation != null) {
+            TargetMethods.collect(context, sink, injectorAnnotation,
+                    TargetMethods.getSlice(context.getRoot(), injectorAnnotation, constantAnnotation),
+                    (method, range) -> {
+                        List<Candidate> result = new ArrayList<>();
+                        for (Candidate candidate : method.getConstants(range)) {
+                            if (candidate.value().startsWith(PREFIX)) {
+                                result.add(new Candidate(candidate.value().substring(PREFIX.length()),
+                                        candidate.occurrences()));
+                            }
+                        }
+                        return result;
+                    }, Util.VALUE_ITEM);
+        }
+    }
+}
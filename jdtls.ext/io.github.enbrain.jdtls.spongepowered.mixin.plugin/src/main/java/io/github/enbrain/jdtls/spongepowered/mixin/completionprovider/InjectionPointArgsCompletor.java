@@ -0,0 +1,42 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.completionprovider;
+
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.StringLiteral;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionContext;
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionSink;
+import io.github.enbrain.jdtls.spongepowered.mixin.Util;
+import io.github.enbrain.jdtls.spongepowered.mixin.completionprovider.TargetMethods.Query;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodIndex;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodIndex.Candidate;
+
+/**
+ * Provides completion items for {@code @At(value = "CONSTANT", args = "...")}
+ * and {@code @At(value = "JUMP", args = "...")}, from the constants or jump
+ * opcodes in the slice of the target methods.
+ */
+public class InjectionPointArgsCompletor implements Completor {
+    @Override
+    public void complete(CompletionContext context, CompletionSink sink) throws JavaModelException {
+        Annotation injectionPointAnnotation = context.getAnnotation();
+        Expression injectionPointType = Util.getMemberValue(injectionPointAnnotation, "value");
+        if (!(injectionPointType instanceof StringLiteral injectionPointTypeStringLiteral)) {
+            return;
+        }
+
+        Query<Candidate> query = switch (injectionPointTypeStringLiteral.getLiteralValue()) {
+            case "CONSTANT" -> MethodIndex::getConstants;
+            case "JUMP" -> MethodIndex::getJumps;
+            default -> null;
+        };
+        Annotation injectorAnnotation = TargetMethods.getEnclosingInjector(context.getRoot(),
+                injectionPointAnnotation);
+        if (query != null && injectorAnnotation != null) {
+            TargetMethods.collect(context, sink, injectorAnnotation,
+                    TargetMethods.getSlice(context.getRoot(), injectorAnnotation, injectionPointAnnotation), query,
+                    Util.VALUE_ITEM);
+        }
+    }
+}
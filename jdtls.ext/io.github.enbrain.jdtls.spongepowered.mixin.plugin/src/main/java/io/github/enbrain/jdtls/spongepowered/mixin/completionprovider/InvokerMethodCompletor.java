@@ -12,13 +12,8 @@ import io.github.enbrain.jdtls.spongepowered.mixin.Util;
  */
 public class InvokerMethodCompletor extends AccessorOrInvokerMemberCompletor {
     @Override
-    protected String getAnnotationClassName() {
-        return Util.INVOKER_ANNOTATION;
-    }
-
-    @Override
-    protected List<String> collectMembers(List<IType> targetClasses) throws JavaModelException {
-        return Util.collectMethods(targetClasses);
+    protected List<String> collectMembers(IType target) throws JavaModelException {
+        return Util.collectMethods(target);
     }
 
     @Override
@@ -0,0 +1,120 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.completionprovider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.Signature;
+import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionContext;
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionItem;
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionSink;
+import io.github.enbrain.jdtls.spongepowered.mixin.Util;
+import io.github.enbrain.jdtls.spongepowered.mixin.completionprovider.TargetMethods.Slice;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.InjectionPoint;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodIndex.Local;
+
+/**
+ * Provides completion items for {@code @ModifyVariable(name = "...")} and
+ * MixinExtras {@code @Local(name = "...")}.
+ *
+ * <p>
+ * The candidates are the locals of the target methods that are visible at the
+ * injection point of the injector and have the type of the handler parameter,
+ * with their index and ordinal as detail. A MixinExtras {@code LocalRef<T>}
+ * parameter has the type {@code T}, and a {@code LocalIntRef} and its siblings
+ * the primitive type they are named after.
+ */
+public class LocalVariableCompletor implements Completor {
+    private static final String MODIFY_VARIABLE_ANNOTATION = "org.spongepowered.asm.mixin.injection.ModifyVariable";
+    private static final String LOCAL_REF = "com.llamalad7.mixinextras.sugar.ref.LocalRef";
+    private static final Map<String, String> PRIMITIVE_LOCAL_REFS = Map.of(
+            "com.llamalad7.mixinextras.sugar.ref.LocalBooleanRef", "Z",
+            "com.llamalad7.mixinextras.sugar.ref.LocalByteRef", "B",
+            "com.llamalad7.mixinextras.sugar.ref.LocalCharRef", "C",
+            "com.llamalad7.mixinextras.sugar.ref.LocalShortRef", "S",
+            "com.llamalad7.mixinextras.sugar.ref.LocalIntRef", "I",
+            "com.llamalad7.mixinextras.sugar.ref.LocalLongRef", "J",
+            "com.llamalad7.mixinextras.sugar.ref.LocalFloatRef", "F",
+            "com.llamalad7.mixinextras.sugar.ref.LocalDoubleRef", "D");
+
+    @Override
+    public void complete(CompletionContext context, CompletionSink sink) throws JavaModelException {
+        Annotation annotation = context.getAnnotation();
+        Annotation injector;
+        String descriptor;
+        if (context.getAnnotationName().equals(MODIFY_VARIABLE_ANNOTATION)) {
+            injector = annotation;
+            ITypeBinding type = annotation.getParent() instanceof MethodDeclaration handler
+                    ? getModifiedType(handler)
+                    : null;
+            descriptor = type != null ? Util.getDescriptor(type) : null;
+        } else if (annotation.getParent() instanceof SingleVariableDeclaration parameter
+                && parameter.getParent() instanceof MethodDeclaration handler) {
+            injector = TargetMethods.getInjector(handler);
+            IVariableBinding binding = parameter.resolveBinding();
+            descriptor = binding != null ? getCapturedDescriptor(binding.getType()) : null;
+        } else {
+            return;
+        }
+        if (injector == null) {
+            return;
+        }
+
+        Annotation at = null;
+        for (Expression expression : Util.getElements(Util.getMemberValue(injector, "at"))) {
+            if (expression instanceof Annotation atAnnotation) {
+                at = atAnnotation;
+                break;
+            }
+        }
+        InjectionPoint point = TargetMethods.read(at);
+        Slice slice = at != null ? TargetMethods.getSlice(context.getRoot(), injector, at) : Slice.NONE;
+        boolean argsOnly = Boolean.TRUE.equals(Util.getConstant(Util.getMemberValue(annotation, "argsOnly")));
+
+        TargetMethods.scan(context, injector, slice, (method, range) -> method.getLocals(point, range), locals -> {
+            List<CompletionItem> items = new ArrayList<>();
+            for (Local local : locals) {
+                if ((descriptor == null || local.descriptor().equals(descriptor)) && (!argsOnly || local.argument())) {
+                    items.add(new CompletionItem(local.name(), Util.VARIABLE_ITEM,
+                            Signature.toString(local.descriptor().replace('/', '.')) + " (index " + local.index()
+                                    + ", ordinal " + local.ordinal() + ")"));
+                }
+            }
+            sink.addAll(items);
+        });
+    }
+
+    /**
+     * Returns the descriptor of the local that a {@code @Local} parameter of
+     * {@code type} captures, or {@code null} if a raw or wildcard
+     * {@code LocalRef} leaves it open.
+     */
+    private static String getCapturedDescriptor(ITypeBinding type) {
+        String name = type.getErasure().getQualifiedName();
+        if (name.equals(LOCAL_REF)) {
+            ITypeBinding[] arguments = type.getTypeArguments();
+            return arguments.length == 1 && !arguments[0].isWildcardType() ? Util.getDescriptor(arguments[0]) : null;
+        }
+
+        String primitive = PRIMITIVE_LOCAL_REFS.get(name);
+        return primitive != null ? primitive : Util.getDescriptor(type);
+    }
+
+    /**
+     * Returns the type of the variable that a {@code @ModifyVariable} handler
+     * modifies, which is its first parameter.
+     */
+    private static ITypeBinding getModifiedType(MethodDeclaration handler) {
+        IMethodBinding binding = handler.resolveBinding();
+        return binding != null && binding.getParameterTypes().length > 0 ? binding.getParameterTypes()[0] : null;
+    }
+}
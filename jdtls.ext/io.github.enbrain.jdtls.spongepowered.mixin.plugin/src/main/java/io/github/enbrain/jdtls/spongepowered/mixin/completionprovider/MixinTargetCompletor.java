@@ -0,0 +1,62 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.completionprovider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.launching.JavaRuntime;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionContext;
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionItem;
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionSink;
+import io.github.enbrain.jdtls.spongepowered.mixin.Util;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.IndexManager;
+
+/**
+ * Provides completion items for {@code @Mixin(targets = "...")} from the
+ * classes in the binary roots on the classpath of the project, leaving out the
+ * JDK.
+ *
+ * <p>
+ * Only the names in the package typed so far, or that start with the typed
+ * text if no package is typed yet, are candidates. They are looked up by
+ * binary search, and only an empty literal lists every name.
+ */
+public class MixinTargetCompletor implements Completor {
+    @Override
+    public void complete(CompletionContext context, CompletionSink sink) throws JavaModelException {
+        if (!(context.getRoot() instanceof CompilationUnit unit) || unit.getTypeRoot() == null) {
+            return;
+        }
+
+        String typed = context.getPrefix();
+        String prefix = typed.substring(0, typed.lastIndexOf('/') + 1);
+        if (prefix.isEmpty()) {
+            prefix = typed;
+        }
+        sink.restrict(prefix);
+
+        ITypeRoot typeRoot = unit.getTypeRoot();
+        for (IPackageFragmentRoot root : typeRoot.getJavaProject().getAllPackageFragmentRoots()) {
+            context.checkCanceled();
+            if (root.getKind() == IPackageFragmentRoot.K_BINARY && !isJdk(root)) {
+                List<String> names = IndexManager.getClassNames(root).getNames(prefix);
+                List<CompletionItem> items = new ArrayList<>(names.size());
+                for (String name : names) {
+                    items.add(new CompletionItem(name, Util.CLASS_ITEM));
+                }
+                sink.addAll(items);
+            }
+        }
+    }
+
+    private static boolean isJdk(IPackageFragmentRoot root) throws JavaModelException {
+        IClasspathEntry entry = root.getRawClasspathEntry();
+        return entry != null && entry.getEntryKind() == IClasspathEntry.CPE_CONTAINER
+                && JavaRuntime.JRE_CONTAINER.equals(entry.getPath().segment(0));
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.completionprovider;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.core.IJavaModelStatusConstants;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.StringLiteral;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionContext;
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionItem;
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionSink;
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionStats;
+import io.github.enbrain.jdtls.spongepowered.mixin.TargetScanner;
+import io.github.enbrain.jdtls.spongepowered.mixin.Util;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.ClassIndex;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.IndexManager;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.InjectionPoint;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodIndex;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodIndex.Candidate;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodIndex.Range;
+import io.github.enbrain.jdtls.spongepowered.mixin.jfr.TargetScanEvent;
+
+/**
+ * Collects candidates from the code of the methods that an injector targets,
+ * in every target class.
+ */
+final class TargetMethods {
+    private static final String SLICE_ANNOTATION = "org.spongepowered.asm.mixin.injection.Slice";
+
+    private TargetMethods() {
+    }
+
+    /**
+     * Asks a question about the instructions of a target method in a range.
+     */
+    interface Query<T> {
+        List<T> apply(MethodIndex method, Range range);
+    }
+
+    /**
+     * The injection points bounding a {@code @Slice}, which are {@code null} if
+     * that end is open.
+     */
+    record Slice(InjectionPoint from, InjectionPoint to) {
+        static final Slice NONE = new Slice(null, null);
+    }
+
+    static Annotation getEnclosingInjector(ASTNode root, ASTNode node) {
+        return (Annotation) Util.getEnclosingNode(root, node, n -> {
+            if (n instanceof Annotation annotation) {
+                ITypeBinding binding = annotation.getTypeName().resolveTypeBinding();
+                if (binding != null) {
+                    String name = binding.getQualifiedName();
+                    if (Util.INJECTORS.contains(name)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Returns the injector annotation of a handler method, or {@code null} if
+     * it has none.
+     */
+    static Annotation getInjector(MethodDeclaration handler) {
+        for (Object modifier : handler.modifiers()) {
+            if (modifier instanceof Annotation annotation) {
+                ITypeBinding binding = annotation.getTypeName().resolveTypeBinding();
+                if (binding != null && Util.INJECTORS.contains(binding.getQualifiedName())) {
+                    return annotation;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the slice of {@code injector} that {@code annotation} refers to by
+     * its {@code slice} member. An {@code @At} that bounds a slice is not
+     * sliced itself.
+     */
+    static Slice getSlice(ASTNode root, Annotation injector, Annotation annotation) {
+        Annotation enclosing = (Annotation) Util.getEnclosingNode(root, annotation, n -> n instanceof Annotation);
+        if (enclosing != null && isSlice(enclosing)) {
+            return Slice.NONE;
+        }
+
+        Object id = Util.getConstant(Util.getMemberValue(annotation, "slice"));
+        for (Expression expression : Util.getElements(Util.getMemberValue(injector, "slice"))) {
+            if (expression instanceof Annotation slice && isSlice(slice)) {
+                Object sliceId = Util.getConstant(Util.getMemberValue(slice, "id"));
+                if ((id != null ? id : "").equals(sliceId != null ? sliceId : "")) {
+                    return new Slice(read(Util.getMemberValue(slice, "from")),
+                            read(Util.getMemberValue(slice, "to")));
+                }
+            }
+        }
+        return Slice.NONE;
+    }
+
+    private static boolean isSlice(Annotation annotation) {
+        ITypeBinding binding = annotation.getTypeName().resolveTypeBinding();
+        return binding != null && binding.getQualifiedName().equals(SLICE_ANNOTATION);
+    }
+
+    /**
+     * Reads the injection point of an {@code @At}, or returns {@code null} if
+     * {@code expression} is not one or has no type.
+     */
+    static InjectionPoint read(Expression expression) {
+        if (!(expression instanceof Annotation at)
+                || !(Util.getConstant(Util.getMemberValue(at, "value")) instanceof String type)) {
+            return null;
+        }
+
+        List<String> args = null;
+        Expression argsExpr = Util.getMemberValue(at, "args");
+        if (argsExpr != null) {
+            args = new ArrayList<>();
+            for (Expression element : Util.getElements(argsExpr)) {
+                if (Util.getConstant(element) instanceof String arg) {
+                    args.add(arg.replace(" ", ""));
+                }
+            }
+        }
+
+        Object target = Util.getConstant(Util.getMemberValue(at, "target"));
+        Object opcode = Util.getConstant(Util.getMemberValue(at, "opcode"));
+        Object ordinal = Util.getConstant(Util.getMemberValue(at, "ordinal"));
+        return new InjectionPoint(type, target instanceof String ? (String) target : null,
+                opcode instanceof Integer ? (Integer) opcode : null, args,
+                ordinal instanceof Integer i && i >= 0 ? i : null);
+    }
+
+    /**
+     * Adds the candidates that {@code query} finds in the slice of every method
+     * targeted by {@code injector}, with their ordinals as detail.
+     */
+    static void collect(CompletionContext context, CompletionSink sink, Annotation injector, Slice slice,
+            Query<Candidate> query, int kind) throws JavaModelException {
+        scan(context, injector, slice, query, candidates -> {
+            List<CompletionItem> items = new ArrayList<>(candidates.size());
+            for (Candidate candidate : candidates) {
+                items.add(new CompletionItem(candidate.value(), kind, getOrdinals(candidate.occurrences())));
+            }
+            sink.addAll(items);
+        });
+    }
+
+    /**
+     * Passes what {@code query} finds in the slice of every method targeted by
+     * {@code injector} to {@code consumer}, one target class at a time and in
+     * the order of the target classes.
+     */
+    static <T> void scan(CompletionContext context, Annotation injector, Slice slice, Query<T> query,
+            Consumer<List<T>> consumer) throws JavaModelException {
+        if (!(Util.getMemberValue(injector, "method") instanceof StringLiteral methodLiteral)) {
+            return;
+        }
+
+        String method = methodLiteral.getLiteralValue();
+        String annotationKind = context.getAnnotationKind();
+        TargetScanner.scan(context.getTargetClasses(), targetClass -> {
+            context.checkCanceled();
+            long start = System.nanoTime();
+            TargetScanEvent event = new TargetScanEvent();
+            event.begin();
+            ClassIndex index = IndexManager.getClassIndex(targetClass);
+            if (index == null) {
+                return List.<T>of();
+            }
+            List<T> candidates = new ArrayList<>();
+            try {
+                for (MethodIndex methodIndex : index.findMethods(method)) {
+                    context.checkCanceled();
+                    candidates.addAll(query.apply(methodIndex, methodIndex.getRange(slice.from(), slice.to())));
+                }
+            } catch (IOException e) {
+                throw new JavaModelException(e, IJavaModelStatusConstants.IO_EXCEPTION);
+            }
+            event.finish(targetClass, method, annotationKind, candidates.size());
+            CompletionStats.record(CompletionStats.SCAN, start);
+            return candidates;
+        }, consumer);
+    }
+
+    /**
+     * Returns the ordinals that select the occurrences of a candidate.
+     */
+    private static String getOrdinals(int occurrences) {
+        return occurrences > 1 ? "ordinal 0-" + (occurrences - 1) : "ordinal 0";
+    }
+}
@@ -0,0 +1,605 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.objectweb.asm.Opcodes;
+
+/**
+ * A class file read with random access. Only the constant pool offsets and the
+ * method table are read up front; the code of a method is decoded when it is
+ * requested, so the cost of a request depends on the size of the method rather
+ * than the size of the class.
+ *
+ * <p>
+ * Stack map frames and debug info are skipped, except for the
+ * LocalVariableTable of a decoded method. The other exception is finding out
+ * whether a label separates an {@code LDC} from a following invocation, which
+ * reads the branch targets, exception ranges and debug tables of that method
+ * once.
+ */
+public final class ClassFile {
+    private static final int LDC_W = 19;
+    private static final int LDC2_W = 20;
+    private static final int WIDE = 196;
+    private static final int GOTO_W = 200;
+    private static final int JSR_W = 201;
+
+    private static final String STRING_CONSUMER_DESCRIPTOR = "(Ljava/lang/String;)V";
+
+    /**
+     * The length of every fixed length instruction, or {@code 0} for the
+     * instructions of variable length.
+     */
+    private static final byte[] INSTRUCTION_LENGTHS = new byte[JSR_W + 1];
+
+    static {
+        Arrays.fill(INSTRUCTION_LENGTHS, (byte) 1);
+        for (int opcode : new int[] { Opcodes.BIPUSH, Opcodes.LDC, Opcodes.ILOAD, Opcodes.LLOAD, Opcodes.FLOAD,
+                Opcodes.DLOAD, Opcodes.ALOAD, Opcodes.ISTORE, Opcodes.LSTORE, Opcodes.FSTORE, Opcodes.DSTORE,
+                Opcodes.ASTORE, Opcodes.RET, Opcodes.NEWARRAY }) {
+            INSTRUCTION_LENGTHS[opcode] = 2;
+        }
+        for (int opcode = Opcodes.IFEQ; opcode <= Opcodes.JSR; opcode++) {
+            INSTRUCTION_LENGTHS[opcode] = 3;
+        }
+        for (int opcode = Opcodes.GETSTATIC; opcode <= Opcodes.INVOKESTATIC; opcode++) {
+            INSTRUCTION_LENGTHS[opcode] = 3;
+        }
+        for (int opcode : new int[] { Opcodes.SIPUSH, LDC_W, LDC2_W, Opcodes.IINC, Opcodes.NEW, Opcodes.ANEWARRAY,
+                Opcodes.CHECKCAST, Opcodes.INSTANCEOF, Opcodes.IFNULL, Opcodes.IFNONNULL }) {
+            INSTRUCTION_LENGTHS[opcode] = 3;
+        }
+        INSTRUCTION_LENGTHS[Opcodes.MULTIANEWARRAY] = 4;
+        INSTRUCTION_LENGTHS[Opcodes.INVOKEINTERFACE] = 5;
+        INSTRUCTION_LENGTHS[Opcodes.INVOKEDYNAMIC] = 5;
+        INSTRUCTION_LENGTHS[GOTO_W] = 5;
+        INSTRUCTION_LENGTHS[JSR_W] = 5;
+        INSTRUCTION_LENGTHS[Opcodes.TABLESWITCH] = 0;
+        INSTRUCTION_LENGTHS[Opcodes.LOOKUPSWITCH] = 0;
+        INSTRUCTION_LENGTHS[WIDE] = 0;
+    }
+
+    private final byte[] bytes;
+    private final int[] constantOffsets;
+    private final String[] utf8s;
+    private final int[] symbolIds;
+    private final SymbolTable symbols;
+    private final List<MethodHeader> methods = new ArrayList<>();
+    private final Map<String, Integer> codeOffsets = new HashMap<>();
+
+    private ClassFile(byte[] bytes, SymbolTable symbols) {
+        this.bytes = bytes;
+        this.symbols = symbols;
+
+        int constantCount = this.readUnsignedShort(8);
+        this.constantOffsets = new int[constantCount];
+        this.utf8s = new String[constantCount];
+        this.symbolIds = new int[constantCount];
+
+        int offset = 10;
+        for (int i = 1; i < constantCount; i++) {
+            this.constantOffsets[i] = offset + 1;
+            switch (bytes[offset]) {
+                case 1 -> offset += 3 + this.readUnsignedShort(offset + 1);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> offset += 5;
+                case 5, 6 -> {
+                    offset += 9;
+                    i++;
+                }
+                case 7, 8, 16, 19, 20 -> offset += 3;
+                case 15 -> offset += 4;
+                default -> throw new IllegalArgumentException("Invalid constant pool tag " + bytes[offset]);
+            }
+        }
+
+        offset += 6;
+        offset += 2 + 2 * this.readUnsignedShort(offset);
+
+        int fieldCount = this.readUnsignedShort(offset);
+        offset += 2;
+        for (int i = 0; i < fieldCount; i++) {
+            offset += 6;
+            int attributeCount = this.readUnsignedShort(offset);
+            offset += 2;
+            for (int j = 0; j < attributeCount; j++) {
+                offset += 6 + this.readInt(offset + 2);
+            }
+        }
+
+        int methodCount = this.readUnsignedShort(offset);
+        offset += 2;
+        for (int i = 0; i < methodCount; i++) {
+            MethodHeader method = new MethodHeader(this.readUtf8(offset + 2), this.readUtf8(offset + 4),
+                    this.readUnsignedShort(offset));
+            int attributeCount = this.readUnsignedShort(offset + 6);
+            offset += 8;
+
+            int codeOffset = -1;
+            for (int j = 0; j < attributeCount; j++) {
+                if (this.readUtf8(offset).equals("Code")) {
+                    codeOffset = offset + 6;
+                }
+                offset += 6 + this.readInt(offset + 2);
+            }
+
+            this.methods.add(method);
+            this.codeOffsets.put(method.getKey(), codeOffset);
+        }
+    }
+
+    /**
+     * Reads a class file whose member references are interned into
+     * {@code symbols}.
+     */
+    public static ClassFile read(byte[] bytes, SymbolTable symbols) {
+        return new ClassFile(bytes, symbols);
+    }
+
+    public List<MethodHeader> getMethods() {
+        return this.methods;
+    }
+
+    /**
+     * Decodes the injection point candidates of {@code method}, which must be
+     * one of {@link #getMethods()}.
+     */
+    public MethodIndex decode(MethodHeader method) {
+        Integer codeOffset = this.codeOffsets.get(method.getKey());
+        if (codeOffset == null) {
+            throw new IllegalArgumentException("Unknown method " + method.getKey());
+        }
+        return new MethodDecoder(method, codeOffset).decode();
+    }
+
+    private String readUtf8(int offset) {
+        return this.readUtf8Constant(this.readUnsignedShort(offset));
+    }
+
+    /**
+     * Decodes a modified UTF-8 constant, caching the result. Racing threads
+     * decode the same string, so the cache needs no locking.
+     */
+    private String readUtf8Constant(int index) {
+        String result = this.utf8s[index];
+        if (result != null) {
+            return result;
+        }
+
+        int offset = this.constantOffsets[index];
+        int end = offset + 2 + this.readUnsignedShort(offset);
+        char[] chars = new char[end - offset - 2];
+        int length = 0;
+        for (offset += 2; offset < end;) {
+            int b = this.bytes[offset++] & 0xFF;
+            if ((b & 0x80) == 0) {
+                chars[length++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[length++] = (char) (((b & 0x1F) << 6) | (this.bytes[offset++] & 0x3F));
+            } else {
+                chars[length++] = (char) (((b & 0x0F) << 12) | ((this.bytes[offset++] & 0x3F) << 6)
+                        | (this.bytes[offset++] & 0x3F));
+            }
+        }
+
+        result = new String(chars, 0, length);
+        this.utf8s[index] = result;
+        return result;
+    }
+
+    /**
+     * Returns the symbol id of the UTF-8 constant referenced at {@code offset},
+     * caching it like the string itself.
+     */
+    private int getSymbol(int offset) {
+        int index = this.readUnsignedShort(offset);
+        int result = this.symbolIds[index] - 1;
+        if (result < 0) {
+            result = this.symbols.intern(this.readUtf8Constant(index));
+            this.symbolIds[index] = result + 1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the offset of the class name index of a member reference.
+     */
+    private int getOwnerOffset(int refIndex) {
+        return this.constantOffsets[this.readUnsignedShort(this.constantOffsets[refIndex])];
+    }
+
+    /**
+     * Returns the offset of the name index of a member reference, followed by
+     * its descriptor index.
+     */
+    private int getNameOffset(int refIndex) {
+        return this.constantOffsets[this.readUnsignedShort(this.constantOffsets[refIndex] + 2)];
+    }
+
+    private int readUnsignedShort(int offset) {
+        return ((this.bytes[offset] & 0xFF) << 8) | (this.bytes[offset + 1] & 0xFF);
+    }
+
+    private int readInt(int offset) {
+        return ((this.bytes[offset] & 0xFF) << 24) | ((this.bytes[offset + 1] & 0xFF) << 16)
+                | ((this.bytes[offset + 2] & 0xFF) << 8) | (this.bytes[offset + 3] & 0xFF);
+    }
+
+    private long readLong(int offset) {
+        return ((long) this.readInt(offset) << 32) | (this.readInt(offset + 4) & 0xFFFFFFFFL);
+    }
+
+    private final class MethodDecoder {
+        private final MethodHeader method;
+        private final int codeOffset;
+        private final int codeStart;
+        private final int codeLength;
+
+        private boolean[] labels;
+
+        private MethodDecoder(MethodHeader method, int codeOffset) {
+            this.method = method;
+            this.codeOffset = codeOffset;
+            this.codeStart = codeOffset + 8;
+            this.codeLength = codeOffset < 0 ? 0 : readInt(codeOffset + 4);
+        }
+
+        private MethodIndex decode() {
+            // Every field or method reference takes at least three bytes of code.
+            RefTable invokedMethods = new RefTable(this.codeLength / 3 + 1);
+            RefTable accessedFields = new RefTable(this.codeLength / 3 + 1);
+            InstructionTable table = new InstructionTable();
+            boolean isLastLdc = false;
+
+            int localsOffset = this.findAttribute("LocalVariableTable");
+            // Maps the offsets of instructions to their indexes, for the live ranges of locals.
+            int[] pcIndexes = localsOffset >= 0 ? new int[this.codeLength + 1] : null;
+
+            int index = 0;
+            for (int pc = 0; pc < this.codeLength; pc = this.next(pc), index++) {
+                if (pcIndexes != null) {
+                    pcIndexes[pc] = index;
+                }
+                int offset = this.codeStart + pc;
+                int opcode = ClassFile.this.bytes[offset] & 0xFF;
+
+                if (opcode >= Opcodes.ACONST_NULL && opcode <= LDC2_W) {
+                    int constant = this.getConstant(offset, opcode);
+                    if (constant >= 0) {
+                        // ASM reads LDC_W and LDC2_W as LDC.
+                        table.add(Math.min(opcode, Opcodes.LDC), constant, index);
+                    }
+                    isLastLdc = opcode >= Opcodes.LDC;
+                    continue;
+                }
+
+                if (opcode >= Opcodes.GETSTATIC && opcode <= Opcodes.PUTFIELD) {
+                    table.add(opcode, accessedFields.add(readUnsignedShort(offset + 1)), index);
+                } else if (opcode >= Opcodes.INVOKEVIRTUAL && opcode <= Opcodes.INVOKEINTERFACE) {
+                    int ref = readUnsignedShort(offset + 1);
+                    String descriptor = readUtf8(getNameOffset(ref) + 2);
+
+                    int flags = MethodIndex.INVOKED;
+                    if (!descriptor.endsWith(")V")) {
+                        flags |= MethodIndex.NON_VOID_INVOKED;
+                    } else if (isLastLdc && descriptor.equals(STRING_CONSUMER_DESCRIPTOR) && !this.hasLabel(pc)) {
+                        flags |= MethodIndex.STRING_INVOKED;
+                    }
+                    if (readUtf8(getNameOffset(ref)).equals("<init>")) {
+                        flags |= MethodIndex.CONSTRUCTOR;
+                    }
+
+                    table.add(opcode | flags << MethodIndex.FLAGS_SHIFT, invokedMethods.add(ref), index);
+                } else if (MethodIndex.isJumpInsn(opcode) || (opcode >= Opcodes.IRETURN && opcode <= Opcodes.RETURN)) {
+                    table.add(opcode, -1, index);
+                } else if (opcode == GOTO_W || opcode == JSR_W) {
+                    // ASM reads GOTO_W and JSR_W as GOTO and JSR.
+                    table.add(opcode - GOTO_W + Opcodes.GOTO, -1, index);
+                }
+
+                isLastLdc = false;
+            }
+
+            int[] methodPositions = invokedMethods.toPositions();
+            int[] fieldPositions = accessedFields.toPositions();
+            for (int i = 0; i < table.size; i++) {
+                int opcode = table.opcodes[i] & 0xFF;
+                if (MethodIndex.isMethodInsn(opcode)) {
+                    table.operands[i] = methodPositions[table.operands[i]];
+                } else if (MethodIndex.isFieldInsn(opcode)) {
+                    table.operands[i] = fieldPositions[table.operands[i]];
+                }
+            }
+
+            int[] locals = new int[0];
+            if (pcIndexes != null) {
+                pcIndexes[this.codeLength] = index;
+                locals = this.readLocals(localsOffset, pcIndexes);
+            }
+
+            return new MethodIndex(this.method.name(), this.method.descriptor(), this.method.access(),
+                    ClassFile.this.symbols, invokedMethods.toSymbols(), accessedFields.toSymbols(),
+                    Arrays.copyOf(table.opcodes, table.size), Arrays.copyOf(table.operands, table.size),
+                    Arrays.copyOf(table.indexes, table.size), locals);
+        }
+
+        /**
+         * Returns the offset of the code attribute named {@code name}, or
+         * {@code -1} if there is none.
+         */
+        private int findAttribute(String name) {
+            if (this.codeOffset < 0) {
+                return -1;
+            }
+
+            int offset = this.codeStart + this.codeLength;
+            offset += 2 + 8 * readUnsignedShort(offset);
+            int attributeCount = readUnsignedShort(offset);
+            offset += 2;
+            for (int i = 0; i < attributeCount; i++) {
+                if (readUtf8(offset).equals(name)) {
+                    return offset;
+                }
+                offset += 6 + readInt(offset + 2);
+            }
+            return -1;
+        }
+
+        /**
+         * Reads the LocalVariableTable at {@code offset} in the layout of
+         * {@link MethodIndex}, with its offsets turned into instruction indexes.
+         */
+        private int[] readLocals(int offset, int[] pcIndexes) {
+            int entryCount = readUnsignedShort(offset + 6);
+            int[] result = new int[5 * entryCount];
+            for (int i = 0; i < entryCount; i++) {
+                int entry = offset + 8 + 10 * i;
+                int start = readUnsignedShort(entry);
+                int end = Math.min(start + readUnsignedShort(entry + 2), this.codeLength);
+                result[5 * i] = readUnsignedShort(entry + 8);
+                result[5 * i + 1] = getSymbol(entry + 4);
+                result[5 * i + 2] = getSymbol(entry + 6);
+                result[5 * i + 3] = pcIndexes[start];
+                result[5 * i + 4] = pcIndexes[end];
+            }
+            return result;
+        }
+
+        /**
+         * Returns the symbol of the {@code args} form of the constant loaded by
+         * the instruction at {@code offset}, or {@code -1} if Mixin cannot match
+         * it.
+         */
+        private int getConstant(int offset, int opcode) {
+            SymbolTable symbols = ClassFile.this.symbols;
+            if (opcode == Opcodes.ACONST_NULL) {
+                return symbols.intern("nullValue=true");
+            } else if (opcode <= Opcodes.ICONST_5) {
+                return symbols.intern("intValue=" + (opcode - Opcodes.ICONST_0));
+            } else if (opcode <= Opcodes.LCONST_1) {
+                return symbols.intern("longValue=" + (opcode - Opcodes.LCONST_0));
+            } else if (opcode <= Opcodes.FCONST_2) {
+                return symbols.intern("floatValue=" + (float) (opcode - Opcodes.FCONST_0));
+            } else if (opcode <= Opcodes.DCONST_1) {
+                return symbols.intern("doubleValue=" + (double) (opcode - Opcodes.DCONST_0));
+            } else if (opcode == Opcodes.BIPUSH) {
+                return symbols.intern("intValue=" + ClassFile.this.bytes[offset + 1]);
+            } else if (opcode == Opcodes.SIPUSH) {
+                return symbols.intern("intValue=" + (short) readUnsignedShort(offset + 1));
+            }
+
+            int index = opcode == Opcodes.LDC ? ClassFile.this.bytes[offset + 1] & 0xFF : readUnsignedShort(offset + 1);
+            // An LDC never refers to a UTF-8 constant, so its slot of the symbol cache is free.
+            int result = symbolIds[index] - 1;
+            if (result < 0) {
+                String constant = this.readConstant(index);
+                if (constant == null) {
+                    return -1;
+                }
+                result = symbols.intern(constant);
+                symbolIds[index] = result + 1;
+            }
+            return result;
+        }
+
+        private String readConstant(int index) {
+            int offset = constantOffsets[index];
+            return switch (ClassFile.this.bytes[offset - 1]) {
+                case 3 -> "intValue=" + readInt(offset);
+                case 4 -> "floatValue=" + Float.intBitsToFloat(readInt(offset));
+                case 5 -> "longValue=" + readLong(offset);
+                case 6 -> "doubleValue=" + Double.longBitsToDouble(readLong(offset));
+                case 7 -> "classValue=" + readUtf8(offset);
+                case 8 -> "stringValue=" + readUtf8(offset);
+                default -> null;
+            };
+        }
+
+        /**
+         * Returns the offset of the instruction following the one at {@code pc}.
+         */
+        private int next(int pc) {
+            int opcode = ClassFile.this.bytes[this.codeStart + pc] & 0xFF;
+            int length = INSTRUCTION_LENGTHS[opcode];
+            if (length != 0) {
+                return pc + length;
+            }
+
+            if (opcode == WIDE) {
+                return pc + ((ClassFile.this.bytes[this.codeStart + pc + 1] & 0xFF) == Opcodes.IINC ? 6 : 4);
+            }
+
+            int padded = pc + 4 - (pc & 3);
+            if (opcode == Opcodes.TABLESWITCH) {
+                int low = readInt(this.codeStart + padded + 4);
+                int high = readInt(this.codeStart + padded + 8);
+                return padded + 12 + 4 * (high - low + 1);
+            }
+            return padded + 8 + 8 * readInt(this.codeStart + padded + 4);
+        }
+
+        /**
+         * Returns whether a label precedes the instruction at {@code pc}, like
+         * ASM would visit one.
+         */
+        private boolean hasLabel(int pc) {
+            if (this.labels == null) {
+                this.labels = this.findLabels();
+            }
+            return this.labels[pc];
+        }
+
+        private boolean[] findLabels() {
+            boolean[] result = new boolean[this.codeLength + 1];
+
+            for (int pc = 0; pc < this.codeLength; pc = this.next(pc)) {
+                int offset = this.codeStart + pc;
+                int opcode = ClassFile.this.bytes[offset] & 0xFF;
+
+                if ((opcode >= Opcodes.IFEQ && opcode <= Opcodes.JSR) || opcode == Opcodes.IFNULL
+                        || opcode == Opcodes.IFNONNULL) {
+                    mark(result, pc + (short) readUnsignedShort(offset + 1));
+                } else if (opcode == GOTO_W || opcode == JSR_W) {
+                    mark(result, pc + readInt(offset + 1));
+                } else if (opcode == Opcodes.TABLESWITCH || opcode == Opcodes.LOOKUPSWITCH) {
+                    int padded = this.codeStart + pc + 4 - (pc & 3);
+                    mark(result, pc + readInt(padded));
+                    if (opcode == Opcodes.TABLESWITCH) {
+                        int count = readInt(padded + 8) - readInt(padded + 4) + 1;
+                        for (int i = 0; i < count; i++) {
+                            mark(result, pc + readInt(padded + 12 + 4 * i));
+                        }
+                    } else {
+                        int count = readInt(padded + 4);
+                        for (int i = 0; i < count; i++) {
+                            mark(result, pc + readInt(padded + 12 + 8 * i));
+                        }
+                    }
+                }
+            }
+
+            int offset = this.codeStart + this.codeLength;
+            int handlerCount = readUnsignedShort(offset);
+            offset += 2;
+            for (int i = 0; i < handlerCount; i++) {
+                mark(result, readUnsignedShort(offset));
+                mark(result, readUnsignedShort(offset + 2));
+                mark(result, readUnsignedShort(offset + 4));
+                offset += 8;
+            }
+
+            int attributeCount = readUnsignedShort(offset);
+            offset += 2;
+            for (int i = 0; i < attributeCount; i++) {
+                String name = readUtf8(offset);
+                int entryCount = readUnsignedShort(offset + 6);
+                if (name.equals("LineNumberTable")) {
+                    for (int j = 0; j < entryCount; j++) {
+                        mark(result, readUnsignedShort(offset + 8 + 4 * j));
+                    }
+                } else if (name.equals("LocalVariableTable") || name.equals("LocalVariableTypeTable")) {
+                    for (int j = 0; j < entryCount; j++) {
+                        int start = readUnsignedShort(offset + 8 + 10 * j);
+                        mark(result, start);
+                        mark(result, start + readUnsignedShort(offset + 10 + 10 * j));
+                    }
+                }
+                offset += 6 + readInt(offset + 2);
+            }
+
+            return result;
+        }
+
+        private static void mark(boolean[] labels, int pc) {
+            if (pc >= 0 && pc < labels.length) {
+                labels[pc] = true;
+            }
+        }
+    }
+
+    /**
+     * The instructions of a method that injection points can select, growing
+     * as they are decoded.
+     */
+    private static final class InstructionTable {
+        private int[] opcodes = new int[16];
+        private int[] operands = new int[16];
+        private int[] indexes = new int[16];
+        private int size;
+
+        private void add(int opcode, int operand, int index) {
+            if (this.size == this.opcodes.length) {
+                this.opcodes = Arrays.copyOf(this.opcodes, 2 * this.size);
+                this.operands = Arrays.copyOf(this.operands, 2 * this.size);
+                this.indexes = Arrays.copyOf(this.indexes, 2 * this.size);
+            }
+            this.opcodes[this.size] = opcode;
+            this.operands[this.size] = operand;
+            this.indexes[this.size] = index;
+            this.size++;
+        }
+    }
+
+    /**
+     * An open addressing set of constant pool references.
+     */
+    private final class RefTable {
+        private final int[] refs;
+        private int size;
+
+        private RefTable(int expectedSize) {
+            int capacity = Integer.highestOneBit(expectedSize) << 2;
+            this.refs = new int[capacity];
+        }
+
+        /**
+         * Adds {@code ref} and returns its slot.
+         */
+        private int add(int ref) {
+            int mask = this.refs.length - 1;
+            int i = (ref * 0x9E3779B9) >>> 16 & mask;
+            while (this.refs[i] != 0 && this.refs[i] != ref) {
+                i = (i + 1) & mask;
+            }
+            if (this.refs[i] == 0) {
+                this.refs[i] = ref;
+                this.size++;
+            }
+            return i;
+        }
+
+        /**
+         * Returns the owner, name and descriptor symbols of every reference.
+         */
+        private int[] toSymbols() {
+            int[] result = new int[3 * this.size];
+            int j = 0;
+            for (int ref : this.refs) {
+                if (ref != 0) {
+                    result[j++] = getSymbol(getOwnerOffset(ref));
+                    result[j++] = getSymbol(getNameOffset(ref));
+                    result[j++] = getSymbol(getNameOffset(ref) + 2);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the position in {@link #toSymbols()} of the reference in every
+         * slot.
+         */
+        private int[] toPositions() {
+            int[] result = new int[this.refs.length];
+            int j = 0;
+            for (int i = 0; i < this.refs.length; i++) {
+                if (this.refs[i] != 0) {
+                    result[i] = j++;
+                }
+            }
+            return result;
+        }
+    }
+}
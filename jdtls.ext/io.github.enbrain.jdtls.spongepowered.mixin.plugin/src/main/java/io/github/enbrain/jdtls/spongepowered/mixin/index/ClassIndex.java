@@ -0,0 +1,124 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The methods of a class file, whose injection point candidates are decoded
+ * the first time they are requested.
+ */
+public final class ClassIndex {
+    private final Map<String, MethodHeader> methods = new LinkedHashMap<>();
+    private final Map<String, MethodIndex> decoded = new ConcurrentHashMap<>();
+    private final Decoder decoder;
+
+    /**
+     * Decodes the injection point candidates of a method of the class file.
+     */
+    public interface Decoder {
+        MethodIndex decode(MethodHeader method) throws IOException;
+    }
+
+    public ClassIndex(List<MethodHeader> methods, Decoder decoder) {
+        for (MethodHeader method : methods) {
+            this.methods.put(method.getKey(), method);
+        }
+        this.decoder = decoder;
+    }
+
+    public static ClassIndex create(byte[] bytes, SymbolTable symbols) {
+        ClassFile classFile = ClassFile.read(bytes, symbols);
+        return new ClassIndex(classFile.getMethods(), classFile::decode);
+    }
+
+    /**
+     * Reads method headers written by {@link #writeMethods(DataOutput, List)} at
+     * the position of {@code buffer}.
+     */
+    static List<MethodHeader> readMethods(ByteBuffer buffer) {
+        MethodHeader[] result = new MethodHeader[buffer.getInt()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = MethodHeader.read(buffer);
+        }
+        return List.of(result);
+    }
+
+    static void writeMethods(DataOutput output, List<MethodHeader> methods) throws IOException {
+        output.writeInt(methods.size());
+        for (MethodHeader method : methods) {
+            method.write(output);
+        }
+    }
+
+    public Collection<MethodHeader> getMethods() {
+        return this.methods.values();
+    }
+
+    /**
+     * Returns the methods matching {@code method}, which is either a name or a
+     * name followed by a descriptor. Only those methods are decoded.
+     */
+    public List<MethodIndex> findMethods(String method) throws IOException {
+        MethodHeader exact = this.methods.get(method);
+        if (exact != null) {
+            return List.of(this.decode(exact));
+        }
+
+        List<MethodIndex> result = new ArrayList<>();
+        for (MethodHeader header : this.methods.values()) {
+            if (header.name().equals(method)) {
+                result.add(this.decode(header));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a rough estimate of the heap used by this index and the methods
+     * decoded so far, not counting the shared symbols.
+     */
+    public long estimateSize() {
+        long result = 64 + 96L * this.methods.size();
+        for (MethodIndex method : this.decoded.values()) {
+            result += method.estimateSize();
+        }
+        return result;
+    }
+
+    private MethodIndex decode(MethodHeader method) throws IOException {
+        MethodIndex result = this.decoded.get(method.getKey());
+        if (result == null) {
+            result = this.decoder.decode(method);
+            this.decoded.put(method.getKey(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutput, String)}.
+     */
+    static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        String result = StandardCharsets.UTF_8.decode(buffer.slice(buffer.position(), length)).toString();
+        buffer.position(buffer.position() + length);
+        return result;
+    }
+
+    /**
+     * Writes a string as its UTF-8 bytes after their int length, since a
+     * string constant of a class file can take more than 65535 bytes.
+     */
+    static void writeString(DataOutput output, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+}
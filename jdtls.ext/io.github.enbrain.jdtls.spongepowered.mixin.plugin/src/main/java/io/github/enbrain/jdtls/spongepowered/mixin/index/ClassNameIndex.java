@@ -0,0 +1,106 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.jdt.core.IClassFile;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * The internal names of the classes in a binary package fragment root,
+ * including nested and anonymous ones, which {@code @Mixin(targets = ...)} can
+ * refer to.
+ *
+ * <p>
+ * The names are sorted, so the candidates come in the same order from one
+ * request to the next, and the names that start with a package or prefix are
+ * a range found by binary search.
+ */
+public final class ClassNameIndex {
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final List<String> names;
+
+    private ClassNameIndex(List<String> names) {
+        String[] sorted = names.toArray(String[]::new);
+        Arrays.sort(sorted);
+        this.names = List.of(sorted);
+    }
+
+    /**
+     * Reads the names of the class entries of an archive, without opening the
+     * Java model of its packages.
+     */
+    public static ClassNameIndex create(ZipFile archive) {
+        List<String> names = new ArrayList<>();
+        Enumeration<? extends ZipEntry> entries = archive.entries();
+        while (entries.hasMoreElements()) {
+            String entryName = entries.nextElement().getName();
+            if (entryName.endsWith(CLASS_SUFFIX) && !entryName.startsWith("META-INF/")
+                    && isClassName(entryName)) {
+                names.add(entryName.substring(0, entryName.length() - CLASS_SUFFIX.length()));
+            }
+        }
+        return new ClassNameIndex(names);
+    }
+
+    /**
+     * Reads the names of the class files of a root that is not backed by an
+     * archive file, like a class folder.
+     */
+    public static ClassNameIndex create(IPackageFragmentRoot root) throws JavaModelException {
+        List<String> names = new ArrayList<>();
+        for (IJavaElement child : root.getChildren()) {
+            if (child instanceof IPackageFragment fragment) {
+                String packagePrefix = fragment.isDefaultPackage() ? ""
+                        : fragment.getElementName().replace('.', '/') + "/";
+                for (IClassFile classFile : fragment.getClassFiles()) {
+                    String fileName = classFile.getElementName();
+                    if (fileName.endsWith(CLASS_SUFFIX) && isClassName(fileName)) {
+                        names.add(packagePrefix + fileName.substring(0, fileName.length() - CLASS_SUFFIX.length()));
+                    }
+                }
+            }
+        }
+        return new ClassNameIndex(names);
+    }
+
+    private static boolean isClassName(String fileName) {
+        return !fileName.endsWith("module-info.class") && !fileName.endsWith("package-info.class");
+    }
+
+    /**
+     * Returns the names that start with {@code prefix} in order, without
+     * looking at the others, or all names if it is empty.
+     */
+    public List<String> getNames(String prefix) {
+        if (prefix.isEmpty()) {
+            return this.names;
+        }
+        return this.names.subList(this.lowerBound(prefix), this.lowerBound(prefix + Character.MAX_VALUE));
+    }
+
+    /**
+     * Returns the index of the first name that is not less than {@code key}.
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = this.names.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.names.get(mid).compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
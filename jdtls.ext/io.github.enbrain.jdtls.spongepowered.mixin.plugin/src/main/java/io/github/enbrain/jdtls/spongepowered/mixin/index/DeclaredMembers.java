@@ -0,0 +1,65 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.IField;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.internal.core.JavaElement;
+
+/**
+ * The names of the fields and methods declared by a type, which
+ * {@code @Shadow}, {@code @Accessor} and {@code @Invoker} can refer to.
+ *
+ * @param fields           the names of all declared fields
+ * @param methods          the names of all declared methods, with constructors
+ *                         named {@code <init>}
+ * @param inheritedFields  the names of the fields a subtype inherits
+ * @param inheritedMethods the names of the methods a subtype inherits
+ */
+public record DeclaredMembers(List<String> fields, List<String> methods, List<String> inheritedFields,
+        List<String> inheritedMethods) {
+    public static DeclaredMembers create(IType type) throws JavaModelException {
+        boolean isInterface = type.isInterface();
+
+        Set<String> fields = new LinkedHashSet<>();
+        Set<String> inheritedFields = new LinkedHashSet<>();
+        if (type instanceof JavaElement element) {
+            for (Object object : element.getChildrenOfType(8)) {
+                if (object instanceof IField f) {
+                    fields.add(f.getElementName());
+                    if (isInherited(f, isInterface)) {
+                        inheritedFields.add(f.getElementName());
+                    }
+                }
+            }
+        }
+
+        Set<String> methods = new LinkedHashSet<>();
+        Set<String> inheritedMethods = new LinkedHashSet<>();
+        for (IMethod method : type.getMethods()) {
+            methods.add(method.isConstructor() ? "<init>" : method.getElementName());
+            if (!method.isConstructor() && isInherited(method, isInterface)) {
+                inheritedMethods.add(method.getElementName());
+            }
+        }
+
+        return new DeclaredMembers(List.copyOf(fields), List.copyOf(methods), List.copyOf(inheritedFields),
+                List.copyOf(inheritedMethods));
+    }
+
+    /**
+     * Returns whether a subtype can refer to {@code member} as its own. Private
+     * members are not inherited, and the static members of an interface are
+     * only reachable through the interface.
+     */
+    private static boolean isInherited(IMember member, boolean isInterface) throws JavaModelException {
+        int flags = member.getFlags();
+        return !Flags.isPrivate(flags) && !(isInterface && Flags.isStatic(flags));
+    }
+}
@@ -0,0 +1,457 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.jdt.core.IClassFile;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaModelStatusConstants;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.osgi.framework.FrameworkUtil;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionStats;
+import io.github.enbrain.jdtls.spongepowered.mixin.Util;
+
+/**
+ * Holds the {@link ClassIndex} of every class file and the {@link MemberTable}
+ * of every type that has been a completion target, until the type or its
+ * classpath changes. The supertypes of those types and the
+ * {@link DeclaredMembers} of them and their supertypes are held as well, and
+ * so is the {@link ClassNameIndex} of every binary root that has been
+ * completed from.
+ *
+ * <p>
+ * Class files in archives are read straight from the archive entry, and their
+ * method headers and decoded methods are also kept in an {@link IndexStore} in
+ * the workspace state location, so they survive restarts of the language
+ * server.
+ */
+public final class IndexManager {
+    private IndexManager() {
+    }
+
+    private static final String JRT_FS_JAR = "jrt-fs.jar";
+
+    private static final Map<IClassFile, ClassIndex> CLASS_INDEXES = new ConcurrentHashMap<>();
+
+    private static final Map<IType, MemberTable> MEMBER_TABLES = new ConcurrentHashMap<>();
+
+    private static final Map<IType, DeclaredMembers> DECLARED_MEMBERS = new ConcurrentHashMap<>();
+
+    /**
+     * The supertypes of a type, which any structural change may affect, so
+     * they are dropped all at once.
+     */
+    private static final Map<IType, List<IType>> SUPERTYPES = new ConcurrentHashMap<>();
+
+    private static final Map<IPackageFragmentRoot, ClassNameIndex> CLASS_NAMES = new ConcurrentHashMap<>();
+
+    /**
+     * The stores and open archives by archive path, since roots of several
+     * projects may share an archive and must not append to its store through
+     * separate channels.
+     */
+    private static final Map<Path, IndexStore> STORES = new ConcurrentHashMap<>();
+
+    private static final Map<Path, ZipFile> ARCHIVES = new ConcurrentHashMap<>();
+
+    /**
+     * The symbols of the current indexes, replaced together with them.
+     */
+    private static volatile SymbolTable symbolTable = new SymbolTable();
+
+    /**
+     * Returns the index of a binary type, or {@code null} for a source type.
+     */
+    public static ClassIndex getClassIndex(IType type) throws JavaModelException {
+        IClassFile classFile = type.getClassFile();
+        if (classFile == null) {
+            return null;
+        }
+
+        ClassIndex index = CLASS_INDEXES.get(classFile);
+        if (index != null) {
+            CompletionStats.hit("classIndex");
+        } else {
+            CompletionStats.miss("classIndex");
+            try {
+                index = load(classFile);
+            } catch (IOException e) {
+                throw new JavaModelException(e, IJavaModelStatusConstants.IO_EXCEPTION);
+            }
+            CLASS_INDEXES.put(classFile, index);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the member table of a binary or source type.
+     */
+    public static MemberTable getMemberTable(IType type) throws JavaModelException {
+        MemberTable table = MEMBER_TABLES.get(type);
+        if (table != null) {
+            CompletionStats.hit("memberTable");
+        } else {
+            CompletionStats.miss("memberTable");
+            ClassIndex index = getClassIndex(type);
+            if (index != null) {
+                table = MemberTable.create(index.getMethods());
+            } else {
+                List<MethodHeader> methods = new ArrayList<>();
+                for (IMethod method : type.getMethods()) {
+                    methods.add(new MethodHeader(method.isConstructor() ? "<init>" : method.getElementName(),
+                            Util.getDescriptor(method), method.getFlags()));
+                }
+                table = MemberTable.create(methods);
+            }
+            MEMBER_TABLES.put(type, table);
+        }
+        return table;
+    }
+
+    /**
+     * Returns the names of the fields and methods declared by a binary or
+     * source type.
+     */
+    public static DeclaredMembers getDeclaredMembers(IType type) throws JavaModelException {
+        DeclaredMembers members = DECLARED_MEMBERS.get(type);
+        if (members != null) {
+            CompletionStats.hit("declaredMembers");
+        } else {
+            CompletionStats.miss("declaredMembers");
+            members = DeclaredMembers.create(type);
+            DECLARED_MEMBERS.put(type, members);
+        }
+        return members;
+    }
+
+    /**
+     * Returns the superclasses of a type, nearest first and without
+     * {@code java.lang.Object}, followed by its superinterfaces.
+     *
+     * <p>
+     * The supertype hierarchy that is computed on a miss also gives the
+     * supertypes of every superclass, so they are kept as well.
+     */
+    public static List<IType> getSupertypes(IType type) throws JavaModelException {
+        List<IType> supertypes = SUPERTYPES.get(type);
+        if (supertypes != null) {
+            CompletionStats.hit("supertypes");
+            return supertypes;
+        }
+
+        CompletionStats.miss("supertypes");
+        ITypeHierarchy hierarchy = type.newSupertypeHierarchy(null);
+        supertypes = getSupertypes(hierarchy, type);
+        SUPERTYPES.put(type, supertypes);
+        for (IType superclass : hierarchy.getAllSuperclasses(type)) {
+            if (!SUPERTYPES.containsKey(superclass)) {
+                SUPERTYPES.put(superclass, getSupertypes(hierarchy, superclass));
+            }
+        }
+        return supertypes;
+    }
+
+    private static List<IType> getSupertypes(ITypeHierarchy hierarchy, IType type) {
+        List<IType> result = new ArrayList<>();
+        for (IType superclass : hierarchy.getAllSuperclasses(type)) {
+            if (!superclass.getFullyQualifiedName().equals("java.lang.Object")) {
+                result.add(superclass);
+            }
+        }
+        result.addAll(List.of(hierarchy.getAllSuperInterfaces(type)));
+        return List.copyOf(result);
+    }
+
+    /**
+     * Returns the names of the classes in a binary root. The entries of an
+     * archive are listed straight from the archive.
+     */
+    public static ClassNameIndex getClassNames(IPackageFragmentRoot root) throws JavaModelException {
+        ClassNameIndex index = CLASS_NAMES.get(root);
+        if (index != null) {
+            CompletionStats.hit("classNames");
+        } else {
+            CompletionStats.miss("classNames");
+            ZipFile archive = getArchive(root);
+            index = archive != null ? ClassNameIndex.create(archive) : ClassNameIndex.create(root);
+            CLASS_NAMES.put(root, index);
+        }
+        return index;
+    }
+
+    public static void remove(IClassFile classFile) {
+        CLASS_INDEXES.remove(classFile);
+        MEMBER_TABLES.keySet().removeIf(type -> classFile.equals(type.getClassFile()));
+        DECLARED_MEMBERS.keySet().removeIf(type -> classFile.equals(type.getClassFile()));
+    }
+
+    public static void remove(ICompilationUnit unit) {
+        MEMBER_TABLES.keySet().removeIf(type -> unit.equals(type.getCompilationUnit()));
+        DECLARED_MEMBERS.keySet().removeIf(type -> unit.equals(type.getCompilationUnit()));
+    }
+
+    public static void remove(IPackageFragmentRoot root) {
+        CLASS_INDEXES.keySet().removeIf(classFile -> root.equals(
+                classFile.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT)));
+        MEMBER_TABLES.keySet().removeIf(type -> root.equals(
+                type.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT)));
+        DECLARED_MEMBERS.keySet().removeIf(type -> root.equals(
+                type.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT)));
+        CLASS_NAMES.remove(root);
+        Path archive = getArchiveLocation(root);
+        if (archive != null) {
+            close(STORES.remove(archive));
+            close(ARCHIVES.remove(archive));
+        }
+    }
+
+    /**
+     * Drops the class names of the root of {@code element}, after a class file
+     * or package has been added to or removed from it.
+     */
+    public static void removeClassNames(IJavaElement element) {
+        IJavaElement root = element.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+        if (root != null) {
+            CLASS_NAMES.remove(root);
+        }
+    }
+
+    public static void clearSupertypes() {
+        SUPERTYPES.clear();
+    }
+
+    public static void clear() {
+        CLASS_INDEXES.clear();
+        MEMBER_TABLES.clear();
+        DECLARED_MEMBERS.clear();
+        SUPERTYPES.clear();
+        CLASS_NAMES.clear();
+        symbolTable = new SymbolTable();
+        for (Path archive : STORES.keySet()) {
+            close(STORES.remove(archive));
+        }
+        for (Path archive : ARCHIVES.keySet()) {
+            close(ARCHIVES.remove(archive));
+        }
+    }
+
+    /**
+     * Logs an estimate of the heap used by the indexes, per class and in
+     * total.
+     */
+    public static void logHeapUsage() {
+        long total = 0;
+        long largest = 0;
+        IClassFile largestClassFile = null;
+        for (Map.Entry<IClassFile, ClassIndex> entry : CLASS_INDEXES.entrySet()) {
+            long size = entry.getValue().estimateSize();
+            total += size;
+            if (size > largest) {
+                largest = size;
+                largestClassFile = entry.getKey();
+            }
+        }
+
+        int count = CLASS_INDEXES.size();
+        SymbolTable symbols = symbolTable;
+        JavaLanguageServerPlugin.logInfo(String.format(
+                "Mixin index: %d classes, ~%d KB (~%d B per class, largest %s ~%d B), %d symbols ~%d KB", count,
+                total / 1024, count > 0 ? total / count : 0,
+                largestClassFile != null ? largestClassFile.getElementName() : "-", largest, symbols.size(),
+                symbols.estimateSize() / 1024));
+    }
+
+    private static ClassIndex load(IClassFile classFile) throws IOException {
+        IPackageFragmentRoot root = (IPackageFragmentRoot) classFile.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+        IndexStore store = getStore(root);
+        String entryName = getEntryName(classFile);
+        SymbolTable symbols = symbolTable;
+        ClassFileSource source = new ClassFileSource(classFile, root, entryName, symbols);
+
+        List<MethodHeader> methods = null;
+        if (store != null) {
+            ByteBuffer buffer = store.get(entryName);
+            if (buffer != null) {
+                methods = ClassIndex.readMethods(buffer);
+            }
+        }
+
+        if (methods == null) {
+            List<MethodHeader> headers = source.get().getMethods();
+            put(store, entryName, output -> ClassIndex.writeMethods(output, headers));
+            methods = headers;
+        }
+
+        // The store is looked up again on every decode, since removing another
+        // root on the same archive closes the store that is open now.
+        return new ClassIndex(methods, method -> {
+            String key = entryName + "#" + method.getKey();
+            IndexStore currentStore = getStore(root);
+            if (currentStore != null) {
+                ByteBuffer buffer = currentStore.get(key);
+                if (buffer != null) {
+                    CompletionStats.hit("store");
+                    return MethodIndex.read(buffer, symbols);
+                }
+                CompletionStats.miss("store");
+            }
+
+            MethodIndex index = source.get().decode(method);
+            put(currentStore, key, index::write);
+            return index;
+        });
+    }
+
+    private static void put(IndexStore store, String key, IndexStore.Payload payload) {
+        if (store != null) {
+            try {
+                store.put(key, payload);
+            } catch (IOException e) {
+                JavaLanguageServerPlugin.logException("Failed to store mixin index of " + key, e);
+            }
+        }
+    }
+
+    private static IndexStore getStore(IPackageFragmentRoot root) {
+        Path archive = getArchivePath(root);
+        if (archive == null) {
+            return null;
+        }
+
+        return STORES.computeIfAbsent(archive, a -> {
+            IPath stateLocation = Platform.getStateLocation(FrameworkUtil.getBundle(IndexManager.class));
+            try {
+                return IndexStore.open(stateLocation.append("index").toFile().toPath(), archive);
+            } catch (IOException e) {
+                JavaLanguageServerPlugin.logException("Failed to open mixin index store of " + archive, e);
+                return null;
+            }
+        });
+    }
+
+    private static ZipFile getArchive(IPackageFragmentRoot root) {
+        Path archive = getArchivePath(root);
+        if (archive == null) {
+            return null;
+        }
+
+        return ARCHIVES.computeIfAbsent(archive, a -> {
+            try {
+                return new ZipFile(archive.toFile());
+            } catch (IOException e) {
+                JavaLanguageServerPlugin.logException("Failed to open " + archive, e);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Returns the path of an archive root, or {@code null} if the root is not
+     * backed by an archive file, like the modules of the JDK.
+     */
+    private static Path getArchivePath(IPackageFragmentRoot root) {
+        Path archive = getArchiveLocation(root);
+        return archive != null && Files.isRegularFile(archive) ? archive : null;
+    }
+
+    /**
+     * Returns the normalized path of an archive root, whether or not the file
+     * still exists. The module roots of the JDK report themselves as archives
+     * at the {@code jrt-fs.jar} of the JDK, which does not hold their classes,
+     * so they have no archive path.
+     */
+    private static Path getArchiveLocation(IPackageFragmentRoot root) {
+        if (root == null || !root.isArchive()) {
+            return null;
+        }
+
+        IPath path = root.isExternal() ? root.getPath() : root.getResource().getLocation();
+        if (path == null || JRT_FS_JAR.equalsIgnoreCase(path.lastSegment())) {
+            return null;
+        }
+        return path.toFile().toPath().toAbsolutePath().normalize();
+    }
+
+    private static String getEntryName(IClassFile classFile) {
+        String packageName = classFile.getParent().getElementName();
+        return packageName.isEmpty() ? classFile.getElementName()
+                : packageName.replace('.', '/') + "/" + classFile.getElementName();
+    }
+
+    private static void close(AutoCloseable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                JavaLanguageServerPlugin.logException("Failed to close mixin index resource", e);
+            }
+        }
+    }
+
+    /**
+     * Reads a class file on first use and keeps it while memory allows, so
+     * decoding further methods does not read it again.
+     */
+    private static final class ClassFileSource {
+        private final IClassFile classFile;
+        private final IPackageFragmentRoot root;
+        private final String entryName;
+        private final SymbolTable symbols;
+
+        private SoftReference<ClassFile> cached = new SoftReference<>(null);
+
+        private ClassFileSource(IClassFile classFile, IPackageFragmentRoot root, String entryName,
+                SymbolTable symbols) {
+            this.classFile = classFile;
+            this.root = root;
+            this.entryName = entryName;
+            this.symbols = symbols;
+        }
+
+        private synchronized ClassFile get() throws IOException {
+            ClassFile result = this.cached.get();
+            if (result == null) {
+                result = ClassFile.read(this.readBytes(), this.symbols);
+                this.cached = new SoftReference<>(result);
+            }
+            return result;
+        }
+
+        private byte[] readBytes() throws IOException {
+            ZipFile archive = getArchive(this.root);
+            if (archive != null) {
+                ZipEntry entry = archive.getEntry(this.entryName);
+                if (entry != null) {
+                    try (InputStream input = archive.getInputStream(entry)) {
+                        return input.readAllBytes();
+                    }
+                }
+            }
+
+            try {
+                return this.classFile.getBytes();
+            } catch (JavaModelException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An append-only file of keyed index records for the classes of one archive.
+ *
+ * <p>
+ * The file name is derived from a SHA-1 of the archive path and from the size
+ * and modification time of the archive, so a changed archive never reads a
+ * stale file. Records are read back through a memory mapping of the file as it
+ * was when the store was opened; records appended later are only read after
+ * the next open.
+ */
+public final class IndexStore implements AutoCloseable {
+    private static final int MAGIC = 0x4D495849;
+
+    private static final int VERSION = 6;
+
+    private static final int HEADER_SIZE = 8;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+    private final Map<String, Integer> offsets;
+
+    /**
+     * The keys appended since the store was opened, which are not in
+     * {@link #offsets} until the next open.
+     */
+    private final Set<String> written = new HashSet<>();
+
+    private IndexStore(FileChannel channel, MappedByteBuffer mapped, Map<String, Integer> offsets) {
+        this.channel = channel;
+        this.mapped = mapped;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Opens the store of {@code archive} in {@code directory}, deleting the
+     * stores of previous versions of the archive.
+     */
+    public static IndexStore open(Path directory, Path archive) throws IOException {
+        String prefix = getPrefix(archive);
+        String name = prefix + "-" + Long.toHexString(Files.size(archive)) + "-"
+                + Long.toHexString(Files.getLastModifiedTime(archive).toMillis()) + ".idx";
+
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, prefix + "-*.idx")) {
+            for (Path path : stale) {
+                if (!path.getFileName().toString().equals(name)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+
+        FileChannel channel = FileChannel.open(directory.resolve(name), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (!isValidHeader(channel)) {
+                channel.truncate(0);
+                channel.write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip(), 0);
+            }
+
+            // A file cannot be truncated while it is mapped on Windows, so the torn
+            // tail of an interrupted write is cut off before mapping.
+            Map<String, Integer> offsets = new HashMap<>();
+            int end = scan(channel, offsets);
+            channel.truncate(end);
+            channel.position(end);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, end);
+            return new IndexStore(channel, mapped, offsets);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the payload of a record.
+     */
+    public interface Payload {
+        void write(DataOutput output) throws IOException;
+    }
+
+    /**
+     * Returns a buffer positioned at the payload stored for {@code key}, or
+     * {@code null} if it has not been stored.
+     */
+    public synchronized ByteBuffer get(String key) {
+        Integer offset = this.offsets.get(key);
+        return offset != null ? this.mapped.duplicate().position(offset) : null;
+    }
+
+    /**
+     * Appends a record for {@code key}, unless one has already been stored or
+     * appended since the store was opened.
+     */
+    public synchronized void put(String key, Payload payload) throws IOException {
+        if (this.offsets.containsKey(key) || this.written.contains(key)) {
+            return;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(0);
+        ClassIndex.writeString(output, key);
+        payload.write(output);
+        output.flush();
+
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        record.putInt(0, record.remaining() - 4);
+        while (record.hasRemaining()) {
+            this.channel.write(record);
+        }
+        this.written.add(key);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.channel.close();
+    }
+
+    private static String getPrefix(Path archive) {
+        try {
+            byte[] path = archive.toAbsolutePath().toString().getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(path));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isValidHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        return header.position() == HEADER_SIZE && header.getInt(0) == MAGIC && header.getInt(4) == VERSION;
+    }
+
+    /**
+     * Records the offset of the payload of every complete record and returns the
+     * end of the last one.
+     */
+    private static int scan(FileChannel channel, Map<String, Integer> offsets) throws IOException {
+        long size = channel.size();
+        // Not closed, since that would close the channel
+        DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Channels.newInputStream(channel.position(HEADER_SIZE)), 1 << 16));
+        int position = HEADER_SIZE;
+
+        while (position + 4 <= size) {
+            int length = input.readInt();
+            long end = position + 4L + length;
+            if (length < 4 || end > size) {
+                break;
+            }
+
+            int keyLength = input.readInt();
+            if (keyLength < 0 || 4L + keyLength > length) {
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            input.readFully(key);
+            offsets.put(new String(key, StandardCharsets.UTF_8), position + 8 + keyLength);
+            input.skipNBytes(length - 4 - keyLength);
+            position = (int) end;
+        }
+
+        return position;
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import java.util.List;
+
+/**
+ * An {@code @At} as far as it selects instructions: its type, and its target,
+ * opcode, args and ordinal, which are {@code null} if they are not given.
+ */
+public record InjectionPoint(String type, String target, Integer opcode, List<String> args, Integer ordinal) {
+}
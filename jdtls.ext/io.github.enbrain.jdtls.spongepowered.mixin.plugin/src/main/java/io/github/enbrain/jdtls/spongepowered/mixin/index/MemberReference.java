@@ -0,0 +1,42 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+/**
+ * A member that the {@code method} of an injector or the {@code target} of an
+ * {@code @At} refers to.
+ *
+ * @param owner the internal name of the owner, or {@code null} if it is not
+ *              given
+ * @param name  the name of the member
+ * @param field whether the member is a field, whose name is followed by
+ *              {@code :} and its type
+ */
+public record MemberReference(String owner, String name, boolean field) {
+    /**
+     * Splits a member reference like {@code Lowner;name(desc)},
+     * {@code Lowner;name:type} or {@code name} into its owner and its name.
+     * Returns {@code null} for a pattern or a bare class.
+     */
+    public static MemberReference parse(String reference) {
+        reference = reference.replace(" ", "");
+        String owner = null;
+        int ownerEnd = reference.indexOf(';');
+        int descriptorStart = reference.indexOf('(');
+        if (reference.startsWith("L") && ownerEnd > 0 && (descriptorStart < 0 || ownerEnd < descriptorStart)) {
+            owner = reference.substring(1, ownerEnd).replace('.', '/');
+            reference = reference.substring(ownerEnd + 1);
+        }
+
+        int nameEnd = reference.length();
+        for (char c : new char[] { '(', ':', '*', '{' }) {
+            int index = reference.indexOf(c);
+            if (index >= 0 && index < nameEnd) {
+                nameEnd = index;
+            }
+        }
+        if (nameEnd == 0 || nameEnd < reference.length() && reference.charAt(nameEnd) == '*') {
+            return null;
+        }
+        return new MemberReference(owner, reference.substring(0, nameEnd),
+                nameEnd < reference.length() && reference.charAt(nameEnd) == ':');
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.objectweb.asm.Opcodes;
+
+/**
+ * The methods of a type that an injector can target, grouped by name.
+ *
+ * <p>
+ * The completion label of every method is computed up front: its name, or its
+ * name followed by its descriptor if the name is overloaded.
+ */
+public final class MemberTable {
+    private final Map<String, MethodGroup> methods;
+    private final List<String> methodLabels;
+
+    /**
+     * The methods of a type sharing a name.
+     */
+    public record MethodGroup(String name, List<String> descriptors) {
+        public boolean isOverloaded() {
+            return this.descriptors.size() > 1;
+        }
+    }
+
+    private MemberTable(Map<String, MethodGroup> methods, List<String> methodLabels) {
+        this.methods = methods;
+        this.methodLabels = methodLabels;
+    }
+
+    /**
+     * Creates the table of {@code methods}, leaving out synthetic methods and
+     * static initializers.
+     */
+    public static MemberTable create(Collection<MethodHeader> methods) {
+        Map<String, List<String>> descriptors = new LinkedHashMap<>();
+        for (MethodHeader method : methods) {
+            if ((method.access() & Opcodes.ACC_SYNTHETIC) == 0 && !method.name().equals("<clinit>")) {
+                descriptors.computeIfAbsent(method.name(), k -> new ArrayList<>()).add(method.descriptor());
+            }
+        }
+
+        Map<String, MethodGroup> groups = new LinkedHashMap<>();
+        List<String> labels = new ArrayList<>();
+        descriptors.forEach((name, overloads) -> {
+            MethodGroup group = new MethodGroup(name, List.copyOf(overloads));
+            groups.put(name, group);
+            if (group.isOverloaded()) {
+                for (String descriptor : group.descriptors()) {
+                    labels.add(name + descriptor);
+                }
+            } else {
+                labels.add(name);
+            }
+        });
+
+        return new MemberTable(groups, List.copyOf(labels));
+    }
+
+    public Collection<MethodGroup> getMethods() {
+        return this.methods.values();
+    }
+
+    public MethodGroup getMethod(String name) {
+        return this.methods.get(name);
+    }
+
+    public List<String> getMethodLabels() {
+        return this.methodLabels;
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The declaration of a method of a class file, without its code.
+ */
+public record MethodHeader(String name, String descriptor, int access) {
+    public String getKey() {
+        return this.name + this.descriptor;
+    }
+
+    static MethodHeader read(ByteBuffer buffer) {
+        String name = ClassIndex.readString(buffer);
+        String descriptor = ClassIndex.readString(buffer);
+        return new MethodHeader(name, descriptor, buffer.getInt());
+    }
+
+    void write(DataOutput output) throws IOException {
+        ClassIndex.writeString(output, this.name);
+        ClassIndex.writeString(output, this.descriptor);
+        output.writeInt(this.access);
+    }
+}
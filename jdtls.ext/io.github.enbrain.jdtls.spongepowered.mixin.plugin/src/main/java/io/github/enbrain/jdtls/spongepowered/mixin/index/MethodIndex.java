@@ -0,0 +1,473 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * The injection point candidates found in the code of a single method.
+ *
+ * <p>
+ * The instructions that injection points can select are kept in a table of
+ * primitive arrays, in code order: the opcode of every instruction with the
+ * categories it belongs to, its operand and its index among all instructions
+ * of the method. The operand of a member instruction is the position of its
+ * reference, kept as a triple of {@link SymbolTable} ids, and the operand of a
+ * constant is the symbol of its {@code args} form, like {@code intValue=5}.
+ * Every question is a scan over a range of the table, and only its answers are
+ * turned into strings. The LocalVariableTable of the method is kept alongside,
+ * with the visibility of every local in instruction indexes.
+ */
+public final class MethodIndex {
+    static final int INVOKED = 1;
+    static final int STRING_INVOKED = 1 << 1;
+    static final int NON_VOID_INVOKED = 1 << 2;
+    static final int CONSTRUCTOR = 1 << 3;
+
+    /**
+     * The categories of an instruction are kept above its opcode.
+     */
+    static final int FLAGS_SHIFT = 8;
+
+    private static final String[] JUMP_NAMES = { "IFEQ", "IFNE", "IFLT", "IFGE", "IFGT", "IFLE", "IF_ICMPEQ",
+            "IF_ICMPNE", "IF_ICMPLT", "IF_ICMPGE", "IF_ICMPGT", "IF_ICMPLE", "IF_ACMPEQ", "IF_ACMPNE", "GOTO", "JSR" };
+
+    private final String name;
+    private final String descriptor;
+    private final int access;
+    private final SymbolTable symbols;
+
+    private final int[] methodRefs;
+    private final int[] fieldRefs;
+
+    private final int[] opcodes;
+    private final int[] operands;
+    private final int[] indexes;
+
+    /**
+     * The entries of the LocalVariableTable of the method, five ints each: the
+     * index of the local, the symbols of its name and descriptor, and the
+     * indexes of the first instruction it is visible at and of the one after
+     * the last.
+     */
+    private final int[] locals;
+
+    /**
+     * A range of instructions by their indexes, including both ends.
+     */
+    public record Range(int start, int end) {
+        public static final Range ALL = new Range(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * A local variable visible at an injection point, with its index, its
+     * ordinal among the visible locals of the same type, and whether it is an
+     * argument of the method.
+     */
+    public record Local(String name, String descriptor, int index, int ordinal, boolean argument) {
+    }
+
+    /**
+     * A candidate with the number of instructions it selects, which are its
+     * ordinals.
+     */
+    public record Candidate(String value, int occurrences) {
+    }
+
+    MethodIndex(String name, String descriptor, int access, SymbolTable symbols, int[] methodRefs, int[] fieldRefs,
+            int[] opcodes, int[] operands, int[] indexes, int[] locals) {
+        this.name = name;
+        this.descriptor = descriptor;
+        this.access = access;
+        this.symbols = symbols;
+        this.methodRefs = methodRefs;
+        this.fieldRefs = fieldRefs;
+        this.opcodes = opcodes;
+        this.operands = operands;
+        this.indexes = indexes;
+        this.locals = locals;
+    }
+
+    public String name() {
+        return this.name;
+    }
+
+    public String descriptor() {
+        return this.descriptor;
+    }
+
+    public int access() {
+        return this.access;
+    }
+
+    public List<Candidate> invokedMethods(Range range) {
+        return this.getMethods(INVOKED, range);
+    }
+
+    public List<Candidate> stringInvokedMethods(Range range) {
+        return this.getMethods(STRING_INVOKED, range);
+    }
+
+    public List<Candidate> nonVoidInvokedMethods(Range range) {
+        return this.getMethods(NON_VOID_INVOKED, range);
+    }
+
+    public List<Candidate> invokedConstructors(Range range) {
+        return this.getMethods(CONSTRUCTOR, range);
+    }
+
+    /**
+     * Returns the accessed fields, restricted to the given opcode unless it is
+     * {@code null}.
+     */
+    public List<Candidate> getAccessedFields(Integer opcode, Range range) {
+        int[] counts = new int[this.fieldRefs.length / 3];
+        int[] order = new int[counts.length];
+        int size = 0;
+        for (int i = this.lowerBound(range.start()); i < this.opcodes.length && this.indexes[i] <= range.end(); i++) {
+            int insn = this.opcodes[i] & 0xFF;
+            if (isFieldInsn(insn) && (opcode == null || insn == opcode) && counts[this.operands[i]]++ == 0) {
+                order[size++] = this.operands[i];
+            }
+        }
+        return this.toCandidates(this.fieldRefs, ":", order, size, counts);
+    }
+
+    /**
+     * Returns the jump opcodes in their {@code args} form, like
+     * {@code opcode=IFEQ}.
+     */
+    public List<Candidate> getJumps(Range range) {
+        int[] counts = new int[JUMP_NAMES.length + 2];
+        for (int i = this.lowerBound(range.start()); i < this.opcodes.length && this.indexes[i] <= range.end(); i++) {
+            int insn = this.opcodes[i] & 0xFF;
+            if (insn >= Opcodes.IFEQ && insn <= Opcodes.JSR) {
+                counts[insn - Opcodes.IFEQ]++;
+            } else if (insn == Opcodes.IFNULL || insn == Opcodes.IFNONNULL) {
+                counts[JUMP_NAMES.length + insn - Opcodes.IFNULL]++;
+            }
+        }
+
+        List<Candidate> result = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                String name = i < JUMP_NAMES.length ? JUMP_NAMES[i] : i == JUMP_NAMES.length ? "IFNULL" : "IFNONNULL";
+                result.add(new Candidate("opcode=" + name, counts[i]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the loaded constants in their {@code args} form, like
+     * {@code intValue=5} or {@code stringValue=text}.
+     */
+    public List<Candidate> getConstants(Range range) {
+        Map<Integer, Integer> counts = new LinkedHashMap<>();
+        for (int i = this.lowerBound(range.start()); i < this.opcodes.length && this.indexes[i] <= range.end(); i++) {
+            if (isConstantInsn(this.opcodes[i] & 0xFF)) {
+                counts.merge(this.operands[i], 1, Integer::sum);
+            }
+        }
+
+        List<Candidate> result = new ArrayList<>(counts.size());
+        counts.forEach((symbol, count) -> result.add(new Candidate(this.symbols.get(symbol), count)));
+        return result;
+    }
+
+    /**
+     * Returns the instructions from the one selected by {@code from} to the one
+     * selected by {@code to}, like {@code @Slice} does. Unless an ordinal is
+     * given, {@code from} selects its first match and {@code to} its last. An
+     * end whose injection point is {@code null} or matches nothing is left
+     * open.
+     */
+    public Range getRange(InjectionPoint from, InjectionPoint to) {
+        int start = from != null ? this.find(from, false) : -1;
+        int end = to != null ? this.find(to, true) : -1;
+        return new Range(Math.max(start, 0), end >= 0 ? end : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the index of the instruction selected by {@code point}, or
+     * {@code -1} if there is none.
+     */
+    private int find(InjectionPoint point, boolean last) {
+        List<Integer> selected = this.select(point, Range.ALL);
+        return selected.isEmpty() ? -1 : selected.get(last ? selected.size() - 1 : 0);
+    }
+
+    /**
+     * Returns the indexes of the instructions in {@code range} selected by
+     * {@code point}, counting its ordinal from the start of the range.
+     */
+    private List<Integer> select(InjectionPoint point, Range range) {
+        String type = point.type();
+        if (type.equals("HEAD")) {
+            return List.of(range.start());
+        }
+        boolean tail = type.equals("TAIL");
+        if (tail) {
+            point = new InjectionPoint("RETURN", null, null, null, null);
+        }
+
+        int ref = -1;
+        if (point.target() != null && (type.startsWith("INVOKE") || type.equals("NEW") || type.equals("FIELD"))) {
+            String target = point.target().replace(" ", "");
+            ref = type.equals("FIELD") ? this.findRef(this.fieldRefs, ":", target)
+                    : this.findRef(this.methodRefs, "", target);
+            if (ref < 0) {
+                return List.of();
+            }
+        }
+
+        List<Integer> result = new ArrayList<>();
+        int ordinal = 0;
+        for (int i = this.lowerBound(range.start()); i < this.opcodes.length && this.indexes[i] <= range.end(); i++) {
+            if (this.matches(i, point, ref)) {
+                if (point.ordinal() == null || ordinal == point.ordinal()) {
+                    result.add(this.indexes[i]);
+                }
+                ordinal++;
+            }
+        }
+        return tail && !result.isEmpty() ? List.of(result.get(result.size() - 1)) : result;
+    }
+
+    /**
+     * Returns the local variables visible at the instructions in {@code range}
+     * that {@code at} selects, or at any instruction in {@code range} if
+     * {@code at} is {@code null} or selects none. The receiver is left out.
+     */
+    public List<Local> getLocals(InjectionPoint at, Range range) {
+        Set<Local> result = new LinkedHashSet<>();
+        List<Integer> positions = at != null ? this.select(at, range) : List.of();
+        if (!positions.isEmpty()) {
+            for (int position : positions) {
+                this.addLocals(position, result);
+            }
+        } else {
+            for (int i = 0; i < this.locals.length; i += 5) {
+                if (this.locals[i + 3] <= range.end() && this.locals[i + 4] > range.start()) {
+                    this.addLocals(Math.max(this.locals[i + 3], range.start()), result);
+                }
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * Adds the local variables visible at the instruction at {@code position},
+     * with their ordinals among the visible locals of the same type.
+     */
+    private void addLocals(int position, Set<Local> result) {
+        boolean isStatic = (this.access & Opcodes.ACC_STATIC) != 0;
+        int argumentSize = (Type.getArgumentsAndReturnSizes(this.descriptor) >> 2) - (isStatic ? 1 : 0);
+
+        List<int[]> visible = new ArrayList<>();
+        for (int i = 0; i < this.locals.length; i += 5) {
+            if (this.locals[i + 3] <= position && position < this.locals[i + 4] && (isStatic || this.locals[i] != 0)) {
+                visible.add(Arrays.copyOfRange(this.locals, i, i + 5));
+            }
+        }
+        visible.sort(Comparator.comparingInt(local -> local[0]));
+
+        Map<Integer, Integer> ordinals = new HashMap<>();
+        for (int[] local : visible) {
+            int ordinal = ordinals.merge(local[2], 1, Integer::sum) - 1;
+            result.add(new Local(this.symbols.get(local[1]), this.symbols.get(local[2]), local[0], ordinal,
+                    local[0] < argumentSize));
+        }
+    }
+
+    private boolean matches(int i, InjectionPoint point, int ref) {
+        int insn = this.opcodes[i] & 0xFF;
+        int flags = this.opcodes[i] >>> FLAGS_SHIFT;
+        switch (point.type()) {
+            case "INVOKE":
+                return isMethodInsn(insn) && (ref < 0 || this.operands[i] == ref);
+            case "INVOKE_STRING":
+                return isMethodInsn(insn) && (flags & STRING_INVOKED) != 0 && (ref < 0 || this.operands[i] == ref);
+            case "INVOKE_ASSIGN":
+                return isMethodInsn(insn) && (flags & NON_VOID_INVOKED) != 0 && (ref < 0 || this.operands[i] == ref);
+            case "NEW":
+                return isMethodInsn(insn) && (flags & CONSTRUCTOR) != 0 && (ref < 0 || this.operands[i] == ref);
+            case "FIELD":
+                return isFieldInsn(insn) && (point.opcode() == null || insn == point.opcode())
+                        && (ref < 0 || this.operands[i] == ref);
+            case "JUMP":
+                return isJumpInsn(insn) && (point.opcode() == null || insn == point.opcode());
+            case "CONSTANT":
+                return isConstantInsn(insn)
+                        && (point.args() == null || point.args().contains(this.symbols.get(this.operands[i])));
+            case "RETURN":
+                return insn >= Opcodes.IRETURN && insn <= Opcodes.RETURN;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns the position of the reference whose label is {@code label}, or
+     * {@code -1} if there is none.
+     */
+    private int findRef(int[] refs, String separator, String label) {
+        for (int i = 0; i < refs.length / 3; i++) {
+            if (this.getLabel(refs, separator, i).equals(label)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a rough estimate of the heap used by this index, not counting the
+     * shared symbols.
+     */
+    public long estimateSize() {
+        return 48 + 4 * 16 + 4L * (this.methodRefs.length + this.fieldRefs.length + 3 * this.opcodes.length
+                + this.locals.length);
+    }
+
+    private List<Candidate> getMethods(int flag, Range range) {
+        int[] counts = new int[this.methodRefs.length / 3];
+        int[] order = new int[counts.length];
+        int size = 0;
+        for (int i = this.lowerBound(range.start()); i < this.opcodes.length && this.indexes[i] <= range.end(); i++) {
+            if (isMethodInsn(this.opcodes[i] & 0xFF) && (this.opcodes[i] >>> FLAGS_SHIFT & flag) != 0
+                    && counts[this.operands[i]]++ == 0) {
+                order[size++] = this.operands[i];
+            }
+        }
+        return this.toCandidates(this.methodRefs, "", order, size, counts);
+    }
+
+    private List<Candidate> toCandidates(int[] refs, String separator, int[] order, int size, int[] counts) {
+        List<Candidate> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new Candidate(this.getLabel(refs, separator, order[i]), counts[order[i]]));
+        }
+        return result;
+    }
+
+    private String getLabel(int[] refs, String separator, int ref) {
+        return "L" + this.symbols.get(refs[3 * ref]) + ";" + this.symbols.get(refs[3 * ref + 1]) + separator
+                + this.symbols.get(refs[3 * ref + 2]);
+    }
+
+    /**
+     * Returns the position of the first instruction whose index is at least
+     * {@code index}.
+     */
+    private int lowerBound(int index) {
+        int result = Arrays.binarySearch(this.indexes, index);
+        return result >= 0 ? result : -result - 1;
+    }
+
+    static boolean isMethodInsn(int opcode) {
+        return opcode >= Opcodes.INVOKEVIRTUAL && opcode <= Opcodes.INVOKEINTERFACE;
+    }
+
+    static boolean isFieldInsn(int opcode) {
+        return opcode >= Opcodes.GETSTATIC && opcode <= Opcodes.PUTFIELD;
+    }
+
+    static boolean isJumpInsn(int opcode) {
+        return (opcode >= Opcodes.IFEQ && opcode <= Opcodes.JSR) || opcode == Opcodes.IFNULL
+                || opcode == Opcodes.IFNONNULL;
+    }
+
+    static boolean isConstantInsn(int opcode) {
+        return opcode >= Opcodes.ACONST_NULL && opcode <= Opcodes.LDC;
+    }
+
+    /**
+     * Reads an index written by {@link #write(DataOutput)} at the position of
+     * {@code buffer}, interning its symbols into {@code symbols}.
+     */
+    static MethodIndex read(ByteBuffer buffer, SymbolTable symbols) {
+        String name = ClassIndex.readString(buffer);
+        String descriptor = ClassIndex.readString(buffer);
+        int access = buffer.getInt();
+
+        int[] methodRefs = readRefs(buffer, symbols);
+        int[] fieldRefs = readRefs(buffer, symbols);
+
+        int[] opcodes = new int[buffer.getInt()];
+        int[] operands = new int[opcodes.length];
+        int[] indexes = new int[opcodes.length];
+        for (int i = 0; i < opcodes.length; i++) {
+            opcodes[i] = buffer.getInt();
+            indexes[i] = buffer.getInt();
+            operands[i] = isConstantInsn(opcodes[i] & 0xFF) ? symbols.intern(ClassIndex.readString(buffer))
+                    : buffer.getInt();
+        }
+
+        int[] locals = new int[5 * buffer.getInt()];
+        for (int i = 0; i < locals.length; i += 5) {
+            locals[i] = buffer.getInt();
+            locals[i + 1] = symbols.intern(ClassIndex.readString(buffer));
+            locals[i + 2] = symbols.intern(ClassIndex.readString(buffer));
+            locals[i + 3] = buffer.getInt();
+            locals[i + 4] = buffer.getInt();
+        }
+
+        return new MethodIndex(name, descriptor, access, symbols, methodRefs, fieldRefs, opcodes, operands,
+                indexes, locals);
+    }
+
+    void write(DataOutput output) throws IOException {
+        ClassIndex.writeString(output, this.name);
+        ClassIndex.writeString(output, this.descriptor);
+        output.writeInt(this.access);
+        this.writeRefs(output, this.methodRefs);
+        this.writeRefs(output, this.fieldRefs);
+
+        output.writeInt(this.opcodes.length);
+        for (int i = 0; i < this.opcodes.length; i++) {
+            output.writeInt(this.opcodes[i]);
+            output.writeInt(this.indexes[i]);
+            if (isConstantInsn(this.opcodes[i] & 0xFF)) {
+                ClassIndex.writeString(output, this.symbols.get(this.operands[i]));
+            } else {
+                output.writeInt(this.operands[i]);
+            }
+        }
+
+        output.writeInt(this.locals.length / 5);
+        for (int i = 0; i < this.locals.length; i += 5) {
+            output.writeInt(this.locals[i]);
+            ClassIndex.writeString(output, this.symbols.get(this.locals[i + 1]));
+            ClassIndex.writeString(output, this.symbols.get(this.locals[i + 2]));
+            output.writeInt(this.locals[i + 3]);
+            output.writeInt(this.locals[i + 4]);
+        }
+    }
+
+    private static int[] readRefs(ByteBuffer buffer, SymbolTable symbols) {
+        int[] refs = new int[3 * buffer.getInt()];
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = symbols.intern(ClassIndex.readString(buffer));
+        }
+        return refs;
+    }
+
+    private void writeRefs(DataOutput output, int[] refs) throws IOException {
+        output.writeInt(refs.length / 3);
+        for (int ref : refs) {
+            ClassIndex.writeString(output, this.symbols.get(ref));
+        }
+    }
+}
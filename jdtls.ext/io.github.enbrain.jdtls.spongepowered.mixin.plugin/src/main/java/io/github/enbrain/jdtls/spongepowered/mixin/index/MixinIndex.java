@@ -0,0 +1,205 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.Util;
+
+/**
+ * Maps the classes and methods that mixins target to the mixins and handler
+ * methods that target them.
+ *
+ * <p>
+ * A class is keyed by its internal name, and a method by the internal name of
+ * its owner and its name, like {@code net/minecraft/server/MinecraftServer#tick},
+ * so overloads share their handlers. A method is targeted both by the
+ * {@code method} of an injector and by the {@code target} of its {@code @At}.
+ * The entries of a compilation unit are replaced as a whole whenever it is
+ * indexed again.
+ */
+public final class MixinIndex {
+    private MixinIndex() {
+    }
+
+    /**
+     * A mixin or handler method that targets a class or method.
+     *
+     * @param mixin      the qualified name of the mixin
+     * @param name       the name of the handler method, or the simple name of the
+     *                   mixin if the target is a class
+     * @param annotation the simple name of the injector, or {@code Mixin}
+     * @param target     the string or class that names the target
+     * @param uri        the URI of the compilation unit of the mixin
+     * @param line       the zero-based line of the name
+     * @param character  the zero-based character of the name
+     */
+    public record Handler(String mixin, String name, String annotation, String target, String uri, int line,
+            int character) {
+    }
+
+    private static final Map<String, List<Handler>> HANDLERS = new HashMap<>();
+
+    private static final Map<ICompilationUnit, Map<String, List<Handler>>> UNITS = new HashMap<>();
+
+    /**
+     * Returns the handlers of a class or method, which is a single lookup.
+     */
+    public static synchronized List<Handler> get(String key) {
+        List<Handler> handlers = HANDLERS.get(key);
+        return handlers != null ? List.copyOf(handlers) : List.of();
+    }
+
+    public static String getKey(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    /**
+     * Replaces the entries of {@code unit} with the ones of the mixins in
+     * {@code ast}, which must have bindings.
+     */
+    public static void index(ICompilationUnit unit, CompilationUnit ast) {
+        String uri = JDTUtils.toURI(unit);
+        Map<String, List<Handler>> handlers = new LinkedHashMap<>();
+        ast.accept(new ASTVisitor() {
+            @Override
+            public boolean visit(TypeDeclaration node) {
+                ITypeBinding binding = node.resolveBinding();
+                if (binding != null) {
+                    try {
+                        collect(ast, uri, node, binding, handlers);
+                    } catch (JavaModelException e) {
+                        JavaLanguageServerPlugin.logException("Failed to resolve mixin targets", e);
+                    }
+                }
+                return true;
+            }
+        });
+        put(unit, handlers);
+    }
+
+    private static synchronized void put(ICompilationUnit unit, Map<String, List<Handler>> handlers) {
+        remove(unit);
+        if (!handlers.isEmpty()) {
+            UNITS.put(unit, handlers);
+            handlers.forEach((key, list) -> HANDLERS.computeIfAbsent(key, k -> new ArrayList<>()).addAll(list));
+        }
+    }
+
+    public static synchronized void remove(ICompilationUnit unit) {
+        Map<String, List<Handler>> previous = UNITS.remove(unit);
+        if (previous != null) {
+            previous.forEach((key, list) -> {
+                List<Handler> handlers = HANDLERS.get(key);
+                handlers.removeAll(list);
+                if (handlers.isEmpty()) {
+                    HANDLERS.remove(key);
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes the entries of every compilation unit not in {@code units}.
+     */
+    public static synchronized void retain(Collection<ICompilationUnit> units) {
+        for (ICompilationUnit unit : List.copyOf(UNITS.keySet())) {
+            if (!units.contains(unit)) {
+                remove(unit);
+            }
+        }
+    }
+
+    public static synchronized void clear() {
+        HANDLERS.clear();
+        UNITS.clear();
+    }
+
+    private static void collect(CompilationUnit ast, String uri, TypeDeclaration node, ITypeBinding binding,
+            Map<String, List<Handler>> handlers) throws JavaModelException {
+        List<String> targets = new ArrayList<>();
+        for (IType type : Util.getTargetClasses(binding, new NullProgressMonitor())) {
+            if (type != null) {
+                targets.add(type.getFullyQualifiedName('$').replace('.', '/'));
+            }
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        String mixin = binding.getQualifiedName();
+        for (String target : targets) {
+            add(handlers, target, createHandler(ast, uri, mixin, node.getName(), "Mixin", target));
+        }
+
+        for (MethodDeclaration method : node.getMethods()) {
+            for (Object modifier : method.modifiers()) {
+                if (!(modifier instanceof Annotation injector)) {
+                    continue;
+                }
+                ITypeBinding injectorBinding = injector.getTypeName().resolveTypeBinding();
+                if (injectorBinding == null || !Util.INJECTORS.contains(injectorBinding.getQualifiedName())) {
+                    continue;
+                }
+
+                String annotation = injectorBinding.getName();
+                for (Expression expression : Util.getElements(Util.getMemberValue(injector, "method"))) {
+                    if (Util.getConstant(expression) instanceof String selector) {
+                        MemberReference reference = MemberReference.parse(selector);
+                        if (reference != null) {
+                            Handler handler = createHandler(ast, uri, mixin, method.getName(), annotation, selector);
+                            for (String owner : reference.owner() != null ? List.of(reference.owner()) : targets) {
+                                add(handlers, getKey(owner, reference.name()), handler);
+                            }
+                        }
+                    }
+                }
+                for (Expression at : Util.getElements(Util.getMemberValue(injector, "at"))) {
+                    Expression targetExpr = at instanceof Annotation atAnnotation
+                            ? Util.getMemberValue(atAnnotation, "target")
+                            : null;
+                    if (Util.getConstant(targetExpr) instanceof String target) {
+                        // Handlers are looked up by method, so field accesses are not indexed
+                        MemberReference reference = MemberReference.parse(target);
+                        if (reference != null && reference.owner() != null && !reference.field()) {
+                            add(handlers, getKey(reference.owner(), reference.name()),
+                                    createHandler(ast, uri, mixin, method.getName(), annotation, target));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Handler createHandler(CompilationUnit ast, String uri, String mixin, SimpleName name,
+            String annotation, String target) {
+        int position = name.getStartPosition();
+        return new Handler(mixin, name.getIdentifier(), annotation, target, uri, ast.getLineNumber(position) - 1,
+                ast.getColumnNumber(position));
+    }
+
+    private static void add(Map<String, List<Handler>> handlers, String key, Handler handler) {
+        List<Handler> list = handlers.computeIfAbsent(key, k -> new ArrayList<>());
+        if (!list.contains(handler)) {
+            list.add(handler);
+        }
+    }
+}
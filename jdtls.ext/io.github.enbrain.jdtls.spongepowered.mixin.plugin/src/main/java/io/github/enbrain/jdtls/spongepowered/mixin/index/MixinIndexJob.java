@@ -0,0 +1,86 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTRequestor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+/**
+ * Updates the {@link MixinIndex} entries of saved compilation units in the
+ * background, instead of rebuilding the whole index.
+ *
+ * <p>
+ * Units saved in quick succession are indexed together. A unit that no longer
+ * mentions mixins only has its entries removed, without being parsed.
+ */
+public class MixinIndexJob extends Job {
+    private static final MixinIndexJob INSTANCE = new MixinIndexJob();
+
+    private static final long DELAY = 200;
+
+    private final Set<ICompilationUnit> pending = new LinkedHashSet<>();
+
+    private MixinIndexJob() {
+        super("Updating mixin index");
+        this.setPriority(Job.DECORATE);
+        this.setSystem(true);
+    }
+
+    /**
+     * Schedules {@code unit} to be indexed again.
+     */
+    public static void update(ICompilationUnit unit) {
+        synchronized (INSTANCE.pending) {
+            INSTANCE.pending.add(unit);
+        }
+        INSTANCE.schedule(DELAY);
+    }
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+        List<ICompilationUnit> units;
+        synchronized (this.pending) {
+            units = new ArrayList<>(this.pending);
+            this.pending.clear();
+        }
+
+        List<ICompilationUnit> mixins = new ArrayList<>();
+        for (ICompilationUnit unit : units) {
+            if (isMixin(unit)) {
+                mixins.add(unit);
+            } else {
+                MixinIndex.remove(unit);
+            }
+        }
+
+        PreindexJob.parse(mixins, new ASTRequestor() {
+            @Override
+            public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+                MixinIndex.index(source, ast);
+            }
+        }, monitor);
+        return Status.OK_STATUS;
+    }
+
+    private static boolean isMixin(ICompilationUnit unit) {
+        if (!unit.exists()) {
+            return false;
+        }
+
+        try {
+            String source = unit.getSource();
+            return source != null && (source.contains("spongepowered") || source.contains("mixinextras"));
+        } catch (JavaModelException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTRequestor;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.ProjectUtils;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.ASTCache;
+import io.github.enbrain.jdtls.spongepowered.mixin.Util;
+
+/**
+ * Indexes the targets of every mixin in the workspace in the background, so
+ * the first completion does not pay for decoding them.
+ *
+ * <p>
+ * Mixins are found both through the {@code *.mixins.json} configs and through
+ * references to {@code @Mixin}. Their targets are resolved like during
+ * completion, and their methods are decoded and their members and supertypes
+ * collected on a small pool of low priority threads. The {@link MixinIndex} is
+ * rebuilt on the way.
+ */
+public class PreindexJob extends Job {
+    private static final PreindexJob INSTANCE = new PreindexJob();
+
+    private static final int POOL_SIZE = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private static final String MIXIN_CONFIG_SUFFIX = ".mixins.json";
+
+    private static final List<String> MIXIN_CONFIG_LISTS = List.of("mixins", "client", "server");
+
+    private PreindexJob() {
+        super("Indexing mixin targets");
+        this.setPriority(Job.DECORATE);
+    }
+
+    /**
+     * Schedules the job, restarting it if it is already running.
+     */
+    public static void start() {
+        INSTANCE.cancel();
+        INSTANCE.schedule();
+    }
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+        SubMonitor progress = SubMonitor.convert(monitor, 100);
+        try {
+            IJavaProject[] projects = ProjectUtils.getJavaProjects();
+
+            Set<ICompilationUnit> mixins = new LinkedHashSet<>();
+            collectConfiguredMixins(projects, mixins, progress.split(10));
+            collectAnnotatedMixins(projects, mixins, progress.split(20));
+
+            MixinIndex.retain(mixins);
+            Set<IType> targets = collectTargets(mixins, progress.split(30));
+
+            indexTargets(targets, progress.split(40));
+            IndexManager.logHeapUsage();
+            return Status.OK_STATUS;
+        } catch (CoreException e) {
+            return e.getStatus();
+        } finally {
+            monitor.done();
+        }
+    }
+
+    private static void collectConfiguredMixins(IJavaProject[] projects, Set<ICompilationUnit> mixins,
+            IProgressMonitor monitor) throws CoreException {
+        SubMonitor progress = SubMonitor.convert(monitor, projects.length);
+
+        for (IJavaProject project : projects) {
+            List<IFile> configs = new ArrayList<>();
+            project.getProject().accept(proxy -> {
+                if (proxy.isDerived()) {
+                    return false;
+                }
+                if (proxy.getType() == IResource.FILE && proxy.getName().endsWith(MIXIN_CONFIG_SUFFIX)) {
+                    configs.add((IFile) proxy.requestResource());
+                }
+                return true;
+            }, IResource.NONE);
+
+            for (IFile config : configs) {
+                for (String className : readMixinClassNames(config)) {
+                    IType type = project.findType(className);
+                    if (type != null && type.getCompilationUnit() != null) {
+                        mixins.add(type.getCompilationUnit());
+                    }
+                }
+            }
+
+            progress.split(1);
+        }
+    }
+
+    private static List<String> readMixinClassNames(IFile config) throws CoreException {
+        List<String> result = new ArrayList<>();
+
+        try (Reader reader = new InputStreamReader(config.getContents(), config.getCharset())) {
+            JsonElement root = JsonParser.parseReader(reader);
+            if (root.isJsonObject()) {
+                JsonObject object = root.getAsJsonObject();
+                JsonElement packageName = object.get("package");
+                String prefix = packageName != null && packageName.isJsonPrimitive()
+                        ? packageName.getAsString() + "."
+                        : "";
+
+                for (String list : MIXIN_CONFIG_LISTS) {
+                    JsonElement names = object.get(list);
+                    if (names != null && names.isJsonArray()) {
+                        for (JsonElement name : names.getAsJsonArray()) {
+                            if (name.isJsonPrimitive()) {
+                                result.add(prefix + name.getAsString());
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (IOException | JsonParseException e) {
+            JavaLanguageServerPlugin.logException("Failed to read mixin config " + config.getFullPath(), e);
+        }
+
+        return result;
+    }
+
+    private static void collectAnnotatedMixins(IJavaProject[] projects, Set<ICompilationUnit> mixins,
+            IProgressMonitor monitor) throws CoreException {
+        SearchPattern pattern = SearchPattern.createPattern(Util.MIXIN_ANNOTATION,
+                IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
+                SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+        IJavaSearchScope scope = SearchEngine.createJavaSearchScope(projects, IJavaSearchScope.SOURCES);
+
+        new SearchEngine().search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() },
+                scope, new SearchRequestor() {
+                    @Override
+                    public void acceptSearchMatch(SearchMatch match) {
+                        if (match.getElement() instanceof IJavaElement element) {
+                            IJavaElement unit = element.getAncestor(IJavaElement.COMPILATION_UNIT);
+                            if (unit != null) {
+                                mixins.add((ICompilationUnit) unit);
+                            }
+                        }
+                    }
+                }, monitor);
+    }
+
+    /**
+     * Collects the targets of the mixins, and updates their entries in the
+     * {@link MixinIndex} on the way.
+     */
+    private static Set<IType> collectTargets(Set<ICompilationUnit> mixins, IProgressMonitor monitor) {
+        Set<IType> result = new LinkedHashSet<>();
+        parse(mixins, new ASTRequestor() {
+            @Override
+            public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+                MixinIndex.index(source, ast);
+                ast.accept(new ASTVisitor() {
+                    @Override
+                    public boolean visit(TypeDeclaration node) {
+                        ITypeBinding binding = node.resolveBinding();
+                        if (binding != null) {
+                            try {
+                                result.addAll(Util.getTargetClasses(binding, monitor));
+                            } catch (JavaModelException e) {
+                                JavaLanguageServerPlugin.logException("Failed to resolve mixin targets", e);
+                            }
+                        }
+                        return true;
+                    }
+                });
+            }
+        }, monitor);
+        return result;
+    }
+
+    /**
+     * Parses compilation units with bindings but without method bodies, one
+     * batch per project.
+     */
+    static void parse(Collection<ICompilationUnit> units, ASTRequestor requestor, IProgressMonitor monitor) {
+        Map<IJavaProject, List<ICompilationUnit>> unitsByProject = new HashMap<>();
+        for (ICompilationUnit unit : units) {
+            unitsByProject.computeIfAbsent(unit.getJavaProject(), p -> new ArrayList<>()).add(unit);
+        }
+
+        SubMonitor progress = SubMonitor.convert(monitor, units.size());
+        for (Map.Entry<IJavaProject, List<ICompilationUnit>> entry : unitsByProject.entrySet()) {
+            ASTParser parser = ASTParser.newParser(AST.JLS18);
+            parser.setProject(entry.getKey());
+            parser.setResolveBindings(true);
+            parser.setIgnoreMethodBodies(true);
+            ASTCache.setCompilerOptions(parser);
+
+            List<ICompilationUnit> projectUnits = entry.getValue();
+            parser.createASTs(projectUnits.toArray(ICompilationUnit[]::new), new String[0], requestor,
+                    progress.split(projectUnits.size()));
+        }
+    }
+
+    private static void indexTargets(Set<IType> targets, IProgressMonitor monitor) {
+        SubMonitor progress = SubMonitor.convert(monitor, targets.size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(POOL_SIZE, runnable -> {
+            Thread thread = new Thread(runnable, "Mixin Target Indexer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (IType target : targets) {
+                futures.add(executor.submit(() -> {
+                    index(target);
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    JavaLanguageServerPlugin.logException("Failed to index mixin target", e.getCause());
+                }
+                progress.split(1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Builds what the completors read for a target: its decoded methods, its
+     * member table, and its supertypes with their declared members.
+     */
+    private static void index(IType target) throws JavaModelException, IOException {
+        ClassIndex index = IndexManager.getClassIndex(target);
+        if (index != null) {
+            for (MethodHeader method : index.getMethods()) {
+                index.findMethods(method.getKey());
+            }
+        }
+
+        IndexManager.getMemberTable(target);
+        IndexManager.getDeclaredMembers(target);
+        for (IType supertype : IndexManager.getSupertypes(target)) {
+            IndexManager.getDeclaredMembers(supertype);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the owners, names and descriptors of indexed member references as
+ * int ids, so every distinct string is held once however many classes refer
+ * to it.
+ */
+public final class SymbolTable {
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private volatile String[] symbols = new String[1024];
+    private int size;
+    private long stringBytes;
+
+    public int intern(String symbol) {
+        Integer id = this.ids.get(symbol);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (this) {
+            id = this.ids.get(symbol);
+            if (id != null) {
+                return id;
+            }
+
+            String[] symbols = this.symbols;
+            if (this.size == symbols.length) {
+                symbols = Arrays.copyOf(symbols, this.size * 2);
+                this.symbols = symbols;
+            }
+            symbols[this.size] = symbol;
+            this.stringBytes += 40 + symbol.length();
+            this.ids.put(symbol, this.size);
+            return this.size++;
+        }
+    }
+
+    public String get(int id) {
+        return this.symbols[id];
+    }
+
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns a rough estimate of the heap used by the table, assuming compact
+     * strings and about 48 bytes per map entry.
+     */
+    public synchronized long estimateSize() {
+        return this.stringBytes + 48L * this.size + 4L * this.symbols.length;
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A completor collecting all candidates of a literal.
+ */
+@Name("io.github.enbrain.mixin.Completor")
+@Label("Mixin Completor")
+@Description("Collection of all completion candidates of a string literal")
+@Category({ "Mixin", "Completion" })
+public final class CompletorEvent extends MixinEvent {
+    @Label("Completor")
+    private String completor;
+
+    @Label("Annotation")
+    private String annotation;
+
+    @Label("Result Count")
+    private int resultCount;
+
+    public void finish(String completor, String annotation, int resultCount) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.completor = completor;
+            this.annotation = annotation;
+            this.resultCount = resultCount;
+            this.commit();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.jfr;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The binding-resolving parse of a compilation unit for completion.
+ */
+@Name("io.github.enbrain.mixin.Parse")
+@Label("Mixin Parse")
+@Description("Binding-resolving parse of a compilation unit for mixin completion")
+@Category({ "Mixin", "Completion" })
+public final class ParseEvent extends MixinEvent {
+    @Label("Compilation Unit")
+    private String unit;
+
+    public void finish(ICompilationUnit unit) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.unit = unit.getPath().toString();
+            this.commit();
+        }
+    }
+}
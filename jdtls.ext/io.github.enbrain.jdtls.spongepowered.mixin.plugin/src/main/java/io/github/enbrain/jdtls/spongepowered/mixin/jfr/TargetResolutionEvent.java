@@ -0,0 +1,32 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.jfr;
+
+import org.eclipse.jdt.core.dom.ITypeBinding;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Resolving the targets of the {@code @Mixin} annotation of a class.
+ */
+@Name("io.github.enbrain.mixin.TargetResolution")
+@Label("Mixin Target Resolution")
+@Description("Resolution of the target classes of a mixin")
+@Category({ "Mixin", "Completion" })
+public final class TargetResolutionEvent extends MixinEvent {
+    @Label("Mixin Class")
+    private String mixinClass;
+
+    @Label("Target Count")
+    private int targetCount;
+
+    public void finish(ITypeBinding mixinClass, int targetCount) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.mixinClass = mixinClass.getQualifiedName();
+            this.targetCount = targetCount;
+            this.commit();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.jfr;
+
+import org.eclipse.jdt.core.IType;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Collecting the candidates of a single target class, from its index or
+ * member table.
+ */
+@Name("io.github.enbrain.mixin.TargetScan")
+@Label("Mixin Target Scan")
+@Description("Collection of the completion candidates of a single target class")
+@Category({ "Mixin", "Completion" })
+public final class TargetScanEvent extends MixinEvent {
+    @Label("Target Class")
+    private String targetClass;
+
+    @Label("Method")
+    @Description("The target method, if the candidates are found in its code")
+    private String method;
+
+    @Label("Annotation")
+    private String annotation;
+
+    @Label("Result Count")
+    private int resultCount;
+
+    public void finish(IType targetClass, String method, String annotation, int resultCount) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.targetClass = targetClass.getFullyQualifiedName();
+            this.method = method;
+            this.annotation = annotation;
+            this.resultCount = resultCount;
+            this.commit();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package net.example;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Engine {
+    private final List<String> log = new ArrayList<>();
+    private int ticks;
+    private boolean running;
+
+    public Engine() {
+    }
+
+    public Engine(int ticks) {
+        this.ticks = ticks;
+    }
+
+    public void tick() {
+        this.ticks++;
+        this.log.add("tick");
+        this.record("tick " + this.ticks);
+        if (this.running && this.ticks % 20 == 0) {
+            this.save(new StringBuilder().append(this.ticks).toString());
+        }
+        System.out.println(this.getTicks());
+    }
+
+    public void save(String name) {
+        this.log.add(name);
+    }
+
+    public void save(String name, boolean flush) {
+        this.save(name);
+        if (flush) {
+            this.log.clear();
+        }
+    }
+
+    public int getTicks() {
+        return this.ticks;
+    }
+
+    private void record(String message) {
+        this.log.add(message);
+    }
+}
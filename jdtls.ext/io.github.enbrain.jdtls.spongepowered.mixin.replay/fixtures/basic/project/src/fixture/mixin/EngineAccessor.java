@@ -0,0 +1,16 @@
+package fixture.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import net.example.Engine;
+
+@Mixin(Engine.class)
+public interface EngineAccessor {
+    @Accessor("")
+    int getTicks();
+
+    @Invoker("")
+    void invokeRecord(String message);
+}
@@ -0,0 +1,27 @@
+package fixture.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+import net.example.Engine;
+
+@Mixin(Engine.class)
+public abstract class EngineMixin {
+    @Shadow(aliases = "")
+    private int ticks;
+
+    @Inject(method = "", at = @At(value = "HEAD"))
+    private void onTick() {
+    }
+
+    @Redirect(method = "tick", at = @At(value = "INVOKE", target = ""))
+    private void redirectSave(Engine engine, String name) {
+    }
+
+    @Inject(method = "tick", at = @At(value = "FIELD", target = ""))
+    private void onField() {
+    }
+}
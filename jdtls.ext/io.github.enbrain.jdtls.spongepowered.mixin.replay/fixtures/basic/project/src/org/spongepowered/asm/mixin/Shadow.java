@@ -0,0 +1,5 @@
+package org.spongepowered.asm.mixin;
+
+public @interface Shadow {
+    String[] aliases() default {};
+}
@@ -0,0 +1,5 @@
+package org.spongepowered.asm.mixin.gen;
+
+public @interface Accessor {
+    String value() default "";
+}
@@ -0,0 +1,5 @@
+package org.spongepowered.asm.mixin.gen;
+
+public @interface Invoker {
+    String value() default "";
+}
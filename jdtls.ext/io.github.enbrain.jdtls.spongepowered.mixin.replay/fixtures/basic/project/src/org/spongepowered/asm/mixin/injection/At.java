@@ -0,0 +1,9 @@
+package org.spongepowered.asm.mixin.injection;
+
+public @interface At {
+    String value();
+
+    String target() default "";
+
+    int opcode() default -1;
+}
@@ -0,0 +1,7 @@
+package org.spongepowered.asm.mixin.injection;
+
+public @interface Inject {
+    String[] method() default {};
+
+    At[] at() default {};
+}
@@ -0,0 +1,7 @@
+package org.spongepowered.asm.mixin.injection;
+
+public @interface Redirect {
+    String[] method() default {};
+
+    At at();
+}
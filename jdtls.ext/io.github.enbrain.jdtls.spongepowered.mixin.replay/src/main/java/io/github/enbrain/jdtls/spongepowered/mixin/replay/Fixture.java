@@ -0,0 +1,116 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.replay;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.launching.JavaRuntime;
+
+/**
+ * Loads a fixture into the workspace as a Java project.
+ *
+ * <p>
+ * The {@code project} directory of a fixture is copied to a temporary
+ * location and becomes the project. Its {@code src} directory is the source
+ * folder and the jars in its {@code lib} directory are on the classpath. The
+ * sources in its {@code lib-src} directory, if any, are first compiled into a
+ * jar in {@code lib}, so fixtures can have binary targets without checking in
+ * jars.
+ */
+final class Fixture {
+    private Fixture() {
+    }
+
+    static IJavaProject load(Path fixture) throws IOException, CoreException {
+        Path location = Files.createTempDirectory("mixin-replay");
+        copy(fixture.resolve("project"), location);
+
+        Path lib = location.resolve("lib");
+        Files.createDirectories(lib);
+        Path libSources = location.resolve("lib-src");
+        if (Files.isDirectory(libSources)) {
+            compile(libSources, lib.resolve("fixture.jar"));
+        }
+
+        IWorkspace workspace = ResourcesPlugin.getWorkspace();
+        IProject project = workspace.getRoot().getProject("mixin-replay");
+        IProjectDescription description = workspace.newProjectDescription(project.getName());
+        description.setLocation(org.eclipse.core.runtime.Path.fromOSString(location.toString()));
+        description.setNatureIds(new String[] { JavaCore.NATURE_ID });
+        project.create(description, null);
+        project.open(null);
+
+        List<IClasspathEntry> classpath = new ArrayList<>();
+        classpath.add(JavaCore.newSourceEntry(project.getFolder("src").getFullPath()));
+        classpath.add(JavaRuntime.getDefaultJREContainerEntry());
+        try (Stream<Path> jars = Files.list(lib)) {
+            for (Path jar : (Iterable<Path>) jars.sorted()::iterator) {
+                classpath.add(JavaCore.newLibraryEntry(org.eclipse.core.runtime.Path.fromOSString(jar.toString()),
+                        null, null));
+            }
+        }
+
+        IJavaProject javaProject = JavaCore.create(project);
+        javaProject.setRawClasspath(classpath.toArray(IClasspathEntry[]::new), project.getFolder("bin").getFullPath(),
+                null);
+        return javaProject;
+    }
+
+    /**
+     * Deletes the project together with its temporary copy of the fixture.
+     */
+    static void dispose(IJavaProject project) throws CoreException {
+        project.getProject().delete(true, true, null);
+    }
+
+    private static void copy(Path source, Path target) throws IOException {
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Path copy = target.resolve(source.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(copy);
+                } else {
+                    Files.copy(path, copy);
+                }
+            }
+        }
+    }
+
+    private static void compile(Path sources, Path jar) throws IOException {
+        Path classes = Files.createTempDirectory("mixin-replay-classes");
+        List<String> arguments = new ArrayList<>(List.of("--release", "17", "-d", classes.toString()));
+        try (Stream<Path> paths = Files.walk(sources)) {
+            paths.filter(path -> path.toString().endsWith(".java")).forEach(path -> arguments.add(path.toString()));
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null || compiler.run(null, null, null, arguments.toArray(String[]::new)) != 0) {
+            throw new IOException("Failed to compile " + sources);
+        }
+
+        try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar));
+                Stream<Path> paths = Files.walk(classes)) {
+            for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile).sorted()::iterator) {
+                output.putNextEntry(new JarEntry(classes.relativize(path).toString().replace('\\', '/')));
+                Files.copy(path, output);
+                output.closeEntry();
+            }
+        }
+    }
+}
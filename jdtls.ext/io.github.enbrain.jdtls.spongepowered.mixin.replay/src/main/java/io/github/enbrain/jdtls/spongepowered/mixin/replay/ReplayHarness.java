@@ -0,0 +1,49 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.replay;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.junit.Test;
+
+/**
+ * Replays a trace of completion requests against a fixture through the real
+ * completion pipeline in a headless workspace, and reports the latency,
+ * allocation and result count percentiles per annotation kind.
+ *
+ * <p>
+ * Run with {@code mvn -Preplay verify} from {@code jdtls.ext}. The
+ * {@code replay.*} properties of the module choose the fixture, the trace,
+ * the completion timeout and the number of measured iterations. The trace is
+ * replayed once more beforehand as a warm-up.
+ */
+public class ReplayHarness {
+    @Test
+    public void replay() throws Exception {
+        Path fixture = Path.of(System.getProperty("replay.fixture"));
+        List<Trace.Step> steps = Trace.read(fixture.resolve(System.getProperty("replay.trace", "trace.txt")));
+        long timeout = Long.getLong("replay.timeout", 0);
+        int iterations = Integer.getInteger("replay.iterations", 20);
+
+        IJavaProject project = Fixture.load(fixture);
+        try {
+            Replayer replayer = new Replayer(project, timeout);
+            replayer.replay(steps, null);
+
+            Report report = new Report();
+            for (int i = 0; i < iterations; i++) {
+                replayer.replay(steps, report);
+            }
+
+            String text = report.format();
+            System.out.print(text);
+            String output = System.getProperty("replay.report");
+            if (output != null) {
+                Files.writeString(Path.of(output), text);
+            }
+        } finally {
+            Fixture.dispose(project);
+        }
+    }
+}
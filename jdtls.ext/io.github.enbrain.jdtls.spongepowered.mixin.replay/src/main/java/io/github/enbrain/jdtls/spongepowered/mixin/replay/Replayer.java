@@ -0,0 +1,136 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.replay;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.NodeFinder;
+import org.eclipse.jdt.core.dom.StringLiteral;
+import org.eclipse.jdt.ls.core.internal.handlers.JsonRpcHelpers;
+
+import com.sun.management.ThreadMXBean;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionHandler;
+import io.github.enbrain.jdtls.spongepowered.mixin.CompletionResult;
+import io.github.enbrain.jdtls.spongepowered.mixin.Util;
+import io.github.enbrain.jdtls.spongepowered.mixin.Util.AnnotationMember;
+
+/**
+ * Replays the steps of a trace through {@link CompletionHandler}, the way the
+ * language server receives them from the client.
+ *
+ * <p>
+ * Every file is opened as a working copy, like an editor does, and typed text
+ * goes into its buffer. Allocations are counted over all threads, since
+ * candidates are collected in the background.
+ */
+final class Replayer {
+    private final IJavaProject project;
+    private final long timeout;
+    private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private long nextRequestId = 1;
+
+    Replayer(IJavaProject project, long timeout) {
+        this.project = project;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Replays {@code steps}, adding a sample for every request to
+     * {@code report} unless it is {@code null}.
+     */
+    void replay(List<Trace.Step> steps, Report report) throws JavaModelException {
+        Map<String, ICompilationUnit> units = new LinkedHashMap<>();
+        try {
+            for (Trace.Step step : steps) {
+                ICompilationUnit unit = units.get(step.file());
+                if (unit == null) {
+                    unit = this.open(step.file());
+                    units.put(step.file(), unit);
+                }
+
+                if (step.text() == null) {
+                    this.complete(unit, step.line(), step.column(), report);
+                } else {
+                    this.type(unit, step.line(), step.column(), step.text(), report);
+                }
+            }
+        } finally {
+            for (ICompilationUnit unit : units.values()) {
+                unit.discardWorkingCopy();
+            }
+        }
+    }
+
+    private ICompilationUnit open(String file) throws JavaModelException {
+        ICompilationUnit unit = JavaCore.createCompilationUnitFrom(this.project.getProject().getFile(file));
+        unit.becomeWorkingCopy(new NullProgressMonitor());
+        return unit;
+    }
+
+    private void type(ICompilationUnit unit, int line, int column, String text, Report report)
+            throws JavaModelException {
+        String original = unit.getBuffer().getContents();
+        int offset = JsonRpcHelpers.toOffset(unit.getBuffer(), line, column);
+        try {
+            for (int i = 0; i < text.length(); i++) {
+                unit.getBuffer().replace(offset + i, 0, text.substring(i, i + 1));
+                this.complete(unit, line, column + i + 1, report);
+            }
+        } finally {
+            unit.getBuffer().setContents(original);
+        }
+    }
+
+    private void complete(ICompilationUnit unit, int line, int column, Report report) throws JavaModelException {
+        String uri = unit.getResource().getLocationURI().toString();
+        String kind = getAnnotationKind(unit.getSource(), JsonRpcHelpers.toOffset(unit.getBuffer(), line, column));
+
+        long allocated = this.getAllocatedBytes();
+        long start = System.nanoTime();
+        CompletionResult result = CompletionHandler.complete(uri, line, column, this.nextRequestId++, this.timeout,
+                new NullProgressMonitor());
+        long nanos = System.nanoTime() - start;
+        long bytes = this.getAllocatedBytes() - allocated;
+
+        if (report != null) {
+            report.add(kind, nanos, bytes, result.items().size(), result.isIncomplete());
+        }
+    }
+
+    private long getAllocatedBytes() {
+        long result = 0;
+        for (long bytes : this.threads.getThreadAllocatedBytes(this.threads.getAllThreadIds())) {
+            result += Math.max(bytes, 0);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the simple name of the annotation and the member the offset is
+     * in, like {@code At.target}.
+     */
+    private static String getAnnotationKind(String source, int offset) {
+        ASTParser parser = ASTParser.newParser(AST.JLS18);
+        parser.setSource(source.toCharArray());
+        parser.setResolveBindings(false);
+        ASTNode node = NodeFinder.perform(parser.createAST(new NullProgressMonitor()), offset, 1);
+
+        AnnotationMember annotationMember = node instanceof StringLiteral ? Util.getAnnotationMember(node) : null;
+        if (annotationMember == null) {
+            return "(none)";
+        }
+
+        String name = annotationMember.annotation().getTypeName().getFullyQualifiedName();
+        return name.substring(name.lastIndexOf('.') + 1) + "." + annotationMember.member();
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.replay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * The latency, allocation and result count percentiles of replayed requests,
+ * per annotation kind.
+ */
+final class Report {
+    private static final String ALL = "(all)";
+
+    private final Map<String, List<Sample>> samples = new TreeMap<>();
+
+    private record Sample(long nanos, long bytes, int results, boolean incomplete) {
+    }
+
+    void add(String kind, long nanos, long bytes, int results, boolean incomplete) {
+        Sample sample = new Sample(nanos, bytes, results, incomplete);
+        this.samples.computeIfAbsent(kind, k -> new ArrayList<>()).add(sample);
+        this.samples.computeIfAbsent(ALL, k -> new ArrayList<>()).add(sample);
+    }
+
+    String format() {
+        StringBuilder result = new StringBuilder();
+        result.append(String.format("%-24s %6s %9s %9s %9s %9s %10s %10s %8s %8s %10s%n", "kind", "count",
+                "p50 ms", "p95 ms", "p99 ms", "max ms", "p50 KB", "p99 KB", "p50 res", "max res", "incomplete"));
+        this.samples.forEach((kind, samples) -> {
+            long[] nanos = sort(samples, Sample::nanos);
+            long[] bytes = sort(samples, Sample::bytes);
+            long[] results = sort(samples, Sample::results);
+            result.append(String.format("%-24s %6d %9.2f %9.2f %9.2f %9.2f %10d %10d %8d %8d %10d%n", kind,
+                    samples.size(), percentile(nanos, 50) / 1e6, percentile(nanos, 95) / 1e6,
+                    percentile(nanos, 99) / 1e6, percentile(nanos, 100) / 1e6, percentile(bytes, 50) / 1024,
+                    percentile(bytes, 99) / 1024, percentile(results, 50), percentile(results, 100),
+                    samples.stream().filter(Sample::incomplete).count()));
+        });
+        return result.toString();
+    }
+
+    private static long[] sort(List<Sample> samples, ToLongFunction<Sample> value) {
+        long[] result = samples.stream().mapToLong(value).toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+}
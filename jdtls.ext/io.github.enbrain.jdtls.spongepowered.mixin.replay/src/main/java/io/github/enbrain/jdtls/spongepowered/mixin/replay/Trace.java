@@ -0,0 +1,44 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.replay;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recorded sequence of completion requests. See {@code fixtures/basic/trace.txt}
+ * for the format.
+ */
+final class Trace {
+    private Trace() {
+    }
+
+    /**
+     * A completion request, or if {@code text} is not {@code null}, a request
+     * after every character of {@code text} typed at the position.
+     */
+    record Step(String file, int line, int column, String text) {
+    }
+
+    static List<Step> read(Path path) throws IOException {
+        List<Step> result = new ArrayList<>();
+        List<String> lines = Files.readAllLines(path);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] parts = line.split("\\s+", 5);
+            if (parts[0].equals("complete") && parts.length == 4) {
+                result.add(new Step(parts[1], Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), null));
+            } else if (parts[0].equals("type") && parts.length == 5) {
+                result.add(new Step(parts[1], Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), parts[4]));
+            } else {
+                throw new IOException(path + ":" + (i + 1) + ": invalid step: " + line);
+            }
+        }
+        return result;
+    }
+}
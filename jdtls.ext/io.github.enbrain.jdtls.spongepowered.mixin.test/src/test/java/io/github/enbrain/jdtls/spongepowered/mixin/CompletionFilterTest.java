@@ -0,0 +1,65 @@
+package io.github.enbrain.jdtls.spongepowered.mixin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CompletionFilterTest {
+    @Test
+    void ranksPrefixMatchesFirst() {
+        CompletionResult result = CompletionFilter.filter(
+                items("getTickCount", "tickCount", "Lnet/Server;tick()V", "tick", "stick"), "tick");
+
+        assertEquals(List.of("tick", "tickCount", "Lnet/Server;tick()V", "getTickCount"), labels(result.items()));
+        assertFalse(result.isIncomplete());
+    }
+
+    @Test
+    void matchesSegmentsCaseInsensitively() {
+        List<CompletionItem> matches = CompletionFilter.match(
+                items("getTickCount", "Lnet/minecraft/server/MinecraftServer;tick()V", "render"), "mstick");
+
+        assertEquals(List.of("Lnet/minecraft/server/MinecraftServer;tick()V"), labels(matches));
+        assertEquals(List.of("getTickCount"), labels(CompletionFilter.match(items("getTickCount", "render"), "gtc")));
+    }
+
+    @Test
+    void dropsDuplicateLabels() {
+        List<CompletionItem> items = List.of(new CompletionItem("tick", 1), new CompletionItem("tick", 2));
+
+        assertEquals(List.of(new CompletionItem("tick", 1)), CompletionFilter.match(items, "t"));
+        assertEquals(List.of(new CompletionItem("tick", 1)), CompletionFilter.filter(items, "t").items());
+    }
+
+    @Test
+    void keepsBestItemsAndMarksIncomplete() {
+        List<String> labels = new ArrayList<>();
+        for (int i = 0; i < CompletionFilter.MAX_ITEMS + 50; i++) {
+            labels.add("method" + i);
+        }
+        labels.add("run");
+        CompletionResult result = CompletionFilter.filter(items(labels.toArray(String[]::new)), "");
+
+        assertEquals(CompletionFilter.MAX_ITEMS, result.items().size());
+        assertEquals("run", result.items().get(0).label());
+        assertTrue(result.isIncomplete());
+        assertFalse(CompletionFilter.filter(items(labels.toArray(String[]::new)), "method1").isIncomplete());
+    }
+
+    private static List<CompletionItem> items(String... labels) {
+        List<CompletionItem> result = new ArrayList<>();
+        for (String label : labels) {
+            result.add(new CompletionItem(label, 0));
+        }
+        return result;
+    }
+
+    private static List<String> labels(List<CompletionItem> items) {
+        return items.stream().map(CompletionItem::label).toList();
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodIndex.Candidate;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodIndex.Local;
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodIndex.Range;
+
+class ClassFileTest {
+    private static final String FIXTURE = "io/github/enbrain/jdtls/spongepowered/mixin/index/ClassFileTest$Fixture";
+
+    @SuppressWarnings("unused")
+    static final class Fixture {
+        private String name;
+
+        int tick(int ticks) {
+            String message = "tick";
+            if (ticks > 0) {
+                System.out.println(message);
+            }
+            this.name = message.trim();
+            return ticks + 1000;
+        }
+
+        void idle() {
+        }
+    }
+
+    static byte[] readFixture() throws IOException {
+        try (InputStream input = ClassFileTest.class.getResourceAsStream("ClassFileTest$Fixture.class")) {
+            return input.readAllBytes();
+        }
+    }
+
+    static MethodIndex decode(String name) throws IOException {
+        ClassFile classFile = ClassFile.read(readFixture(), new SymbolTable());
+        for (MethodHeader method : classFile.getMethods()) {
+            if (method.name().equals(name)) {
+                return classFile.decode(method);
+            }
+        }
+        throw new AssertionError("No method " + name);
+    }
+
+    @Test
+    void readsMethodTable() throws IOException {
+        List<MethodHeader> methods = ClassFile.read(readFixture(), new SymbolTable()).getMethods();
+
+        assertEquals(List.of("<init>()V", "tick(I)I", "idle()V"), methods.stream().map(MethodHeader::getKey).toList());
+    }
+
+    @Test
+    void decodesInvocationsAndFields() throws IOException {
+        MethodIndex tick = decode("tick");
+
+        assertEquals(List.of(new Candidate("Ljava/io/PrintStream;println(Ljava/lang/String;)V", 1),
+                new Candidate("Ljava/lang/String;trim()Ljava/lang/String;", 1)), tick.invokedMethods(Range.ALL));
+        assertEquals(List.of(new Candidate("Ljava/lang/System;out:Ljava/io/PrintStream;", 1),
+                new Candidate("L" + FIXTURE + ";name:Ljava/lang/String;", 1)), tick.getAccessedFields(null, Range.ALL));
+        assertEquals(List.of(new Candidate("L" + FIXTURE + ";name:Ljava/lang/String;", 1)),
+                tick.getAccessedFields(Opcodes.PUTFIELD, Range.ALL));
+    }
+
+    @Test
+    void decodesConstantsInArgsForm() throws IOException {
+        MethodIndex tick = decode("tick");
+
+        assertEquals(List.of(new Candidate("stringValue=tick", 1), new Candidate("intValue=1000", 1)),
+                tick.getConstants(Range.ALL));
+    }
+
+    @Test
+    void decodesJumpsInArgsForm() throws IOException {
+        MethodIndex tick = decode("tick");
+        Range afterJump = tick.getRange(new InjectionPoint("INVOKE", "Ljava/lang/String;trim()Ljava/lang/String;",
+                null, null, null), null);
+
+        assertEquals(List.of(new Candidate("opcode=IFLE", 1)), tick.getJumps(Range.ALL));
+        assertEquals(List.of(), tick.getJumps(afterJump));
+    }
+
+    @Test
+    void decodesLocalsVisibleAtInjectionPoint() throws IOException {
+        MethodIndex tick = decode("tick");
+        Local ticks = new Local("ticks", "I", 1, 0, true);
+        Local message = new Local("message", "Ljava/lang/String;", 2, 0, false);
+
+        assertEquals(List.of(ticks), tick.getLocals(new InjectionPoint("HEAD", null, null, null, null), Range.ALL));
+        assertEquals(List.of(ticks, message),
+                tick.getLocals(new InjectionPoint("INVOKE", "Ljava/lang/String;trim()Ljava/lang/String;", null, null,
+                        null), Range.ALL));
+    }
+
+    @Test
+    void decodesOnlyRequestedMethods() throws IOException {
+        ClassFile classFile = ClassFile.read(readFixture(), new SymbolTable());
+        List<String> decoded = new ArrayList<>();
+        ClassIndex index = new ClassIndex(classFile.getMethods(), method -> {
+            decoded.add(method.name());
+            return classFile.decode(method);
+        });
+
+        assertEquals("tick", index.findMethods("tick").get(0).name());
+        assertEquals("tick", index.findMethods("tick(I)I").get(0).name());
+        assertEquals(List.of("tick"), decoded);
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IndexStoreTest {
+    @Test
+    void readsRecordsAfterReopen(@TempDir Path directory) throws IOException {
+        Path archive = createArchive(directory, 1);
+
+        try (IndexStore store = IndexStore.open(directory.resolve("index"), archive)) {
+            store.put("a/A", output -> output.writeInt(42));
+            assertNull(store.get("a/A"));
+        }
+
+        try (IndexStore store = IndexStore.open(directory.resolve("index"), archive)) {
+            assertEquals(42, store.get("a/A").getInt());
+            assertNull(store.get("a/B"));
+        }
+    }
+
+    @Test
+    void readsRecordWithLongKey(@TempDir Path directory) throws IOException {
+        Path archive = createArchive(directory, 1);
+        String key = "a/".repeat(40000) + "A";
+
+        try (IndexStore store = IndexStore.open(directory.resolve("index"), archive)) {
+            store.put(key, output -> output.writeInt(42));
+        }
+
+        try (IndexStore store = IndexStore.open(directory.resolve("index"), archive)) {
+            assertEquals(42, store.get(key).getInt());
+        }
+    }
+
+    @Test
+    void appendsKeyOnce(@TempDir Path directory) throws IOException {
+        Path archive = createArchive(directory, 1);
+        try (IndexStore store = IndexStore.open(directory.resolve("index"), archive)) {
+            store.put("a/A", output -> output.writeInt(1));
+        }
+
+        Path file = getStoreFiles(directory.resolve("index")).get(0);
+        long size = Files.size(file);
+        try (IndexStore store = IndexStore.open(directory.resolve("index"), archive)) {
+            store.put("a/A", output -> output.writeInt(2));
+            store.put("a/B", output -> output.writeInt(3));
+            long sizeWithB = Files.size(file);
+            store.put("a/B", output -> output.writeInt(4));
+            assertEquals(sizeWithB, Files.size(file));
+        }
+
+        try (IndexStore store = IndexStore.open(directory.resolve("index"), archive)) {
+            assertEquals(1, store.get("a/A").getInt());
+            assertEquals(3, store.get("a/B").getInt());
+            assertEquals(size + 4 + 4 + 3 + 4, Files.size(file));
+        }
+    }
+
+    @Test
+    void truncatesTornRecord(@TempDir Path directory) throws IOException {
+        Path archive = createArchive(directory, 1);
+        try (IndexStore store = IndexStore.open(directory.resolve("index"), archive)) {
+            store.put("a/A", output -> output.writeInt(1));
+        }
+
+        Path file = getStoreFiles(directory.resolve("index")).get(0);
+        long size = Files.size(file);
+        Files.write(file, ByteBuffer.allocate(7).putInt(100).array(), StandardOpenOption.APPEND);
+
+        try (IndexStore store = IndexStore.open(directory.resolve("index"), archive)) {
+            assertEquals(size, Files.size(file));
+            assertEquals(1, store.get("a/A").getInt());
+            store.put("a/B", output -> output.writeInt(2));
+        }
+
+        try (IndexStore store = IndexStore.open(directory.resolve("index"), archive)) {
+            assertEquals(1, store.get("a/A").getInt());
+            assertEquals(2, store.get("a/B").getInt());
+        }
+    }
+
+    @Test
+    void discardsStoreOfChangedArchive(@TempDir Path directory) throws IOException {
+        Path archive = createArchive(directory, 1);
+        try (IndexStore store = IndexStore.open(directory.resolve("index"), archive)) {
+            store.put("a/A", output -> output.writeInt(1));
+        }
+
+        createArchive(directory, 2);
+        try (IndexStore store = IndexStore.open(directory.resolve("index"), archive)) {
+            assertNull(store.get("a/A"));
+        }
+        assertEquals(1, getStoreFiles(directory.resolve("index")).size());
+    }
+
+    @Test
+    void keepsStoresOfArchivesWithSameName(@TempDir Path directory) throws IOException {
+        Path first = createArchive(directory.resolve("first"), 1);
+        Path second = createArchive(directory.resolve("second"), 1);
+
+        try (IndexStore firstStore = IndexStore.open(directory.resolve("index"), first);
+                IndexStore secondStore = IndexStore.open(directory.resolve("index"), second)) {
+            firstStore.put("a/A", output -> output.writeInt(1));
+            secondStore.put("a/A", output -> output.writeInt(2));
+        }
+
+        try (IndexStore firstStore = IndexStore.open(directory.resolve("index"), first);
+                IndexStore secondStore = IndexStore.open(directory.resolve("index"), second)) {
+            assertEquals(1, firstStore.get("a/A").getInt());
+            assertEquals(2, secondStore.get("a/A").getInt());
+        }
+    }
+
+    private static Path createArchive(Path directory, int size) throws IOException {
+        Files.createDirectories(directory);
+        return Files.write(directory.resolve("library.jar"), new byte[size]);
+    }
+
+    private static List<Path> getStoreFiles(Path directory) throws IOException {
+        List<Path> result = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.idx")) {
+            files.forEach(result::add);
+        }
+        return result;
+    }
+}
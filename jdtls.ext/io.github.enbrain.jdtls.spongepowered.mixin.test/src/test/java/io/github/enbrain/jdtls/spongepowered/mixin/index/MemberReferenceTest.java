@@ -0,0 +1,39 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class MemberReferenceTest {
+    @Test
+    void parsesOwnerAndName() {
+        assertEquals(new MemberReference("net/minecraft/server/MinecraftServer", "tick", false),
+                MemberReference.parse("Lnet/minecraft/server/MinecraftServer;tick(Ljava/lang/Runnable;)V"));
+        assertEquals(new MemberReference("net/minecraft/server/MinecraftServer", "tick", false),
+                MemberReference.parse("Lnet.minecraft.server.MinecraftServer; tick ()V"));
+    }
+
+    @Test
+    void parsesFieldReference() {
+        assertEquals(new MemberReference("net/minecraft/world/World", "random", true),
+                MemberReference.parse("Lnet/minecraft/world/World;random:Ljava/util/Random;"));
+        assertEquals(new MemberReference(null, "random", true), MemberReference.parse("random:Ljava/util/Random;"));
+    }
+
+    @Test
+    void parsesNameWithoutOwner() {
+        assertEquals(new MemberReference(null, "tick", false), MemberReference.parse("tick"));
+        assertEquals(new MemberReference(null, "tick", false), MemberReference.parse("tick(I)V"));
+        assertEquals(new MemberReference(null, "<init>", false), MemberReference.parse("<init>"));
+        assertEquals(new MemberReference(null, "Lookup", false), MemberReference.parse("Lookup(Ljava/lang/String;)V"));
+    }
+
+    @Test
+    void rejectsPatternsAndBareClasses() {
+        assertNull(MemberReference.parse("tick*"));
+        assertNull(MemberReference.parse("*"));
+        assertNull(MemberReference.parse("Lnet/minecraft/server/MinecraftServer;"));
+        assertNull(MemberReference.parse("{desc=@Desc(\"tick\")}"));
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.enbrain.jdtls.spongepowered.mixin.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.enbrain.jdtls.spongepowered.mixin.index.MethodIndex.Range;
+
+class MethodIndexTest {
+    @Test
+    void readsWhatWasWritten() throws IOException {
+        MethodIndex written = ClassFileTest.decode("tick");
+        MethodIndex read = MethodIndex.read(write(written), new SymbolTable());
+
+        assertEquals(written.name(), read.name());
+        assertEquals(written.descriptor(), read.descriptor());
+        assertEquals(written.access(), read.access());
+        assertEquals(written.invokedMethods(Range.ALL), read.invokedMethods(Range.ALL));
+        assertEquals(written.getAccessedFields(null, Range.ALL), read.getAccessedFields(null, Range.ALL));
+        assertEquals(written.getConstants(Range.ALL), read.getConstants(Range.ALL));
+        assertEquals(written.getJumps(Range.ALL), read.getJumps(Range.ALL));
+        assertEquals(written.getLocals(null, Range.ALL), read.getLocals(null, Range.ALL));
+    }
+
+    @Test
+    void readsMethodHeadersThatWereWritten() throws IOException {
+        List<MethodHeader> methods = List.of(new MethodHeader("tick", "(I)I", 0),
+                new MethodHeader("<init>", "()V", 1));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        ClassIndex.writeMethods(output, methods);
+        output.flush();
+
+        assertEquals(methods, ClassIndex.readMethods(ByteBuffer.wrap(bytes.toByteArray())));
+    }
+
+    @Test
+    void selectsSliceAfterRead() throws IOException {
+        MethodIndex read = MethodIndex.read(write(ClassFileTest.decode("tick")), new SymbolTable());
+        Range slice = read.getRange(new InjectionPoint("JUMP", null, null, null, null), null);
+
+        assertEquals(List.of(new MethodIndex.Candidate("intValue=1000", 1)), read.getConstants(slice));
+    }
+
+    private static ByteBuffer write(MethodIndex method) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        method.write(output);
+        output.flush();
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+}
@@ -1,17 +1,61 @@
 import * as vscode from 'vscode';
 
+interface MixinCompletionItem {
+	label: string;
+	kind: vscode.CompletionItemKind;
+	detail?: string;
+}
+
+interface MixinCompletionResult {
+	items: MixinCompletionItem[];
+	isIncomplete: boolean;
+}
+
 export default class MixinCompletionItemProvider implements vscode.CompletionItemProvider {
+	// Starts from the current time, so ids keep increasing for a language server that outlives this extension host.
+	private nextRequestId = Date.now();
+
 	async provideCompletionItems(document: vscode.TextDocument, position: vscode.Position, token: vscode.CancellationToken, context: vscode.CompletionContext): Promise<vscode.CompletionItem[] | vscode.CompletionList<vscode.CompletionItem>> {
+		if (token.isCancellationRequested) {
+			return new vscode.CompletionList([], false);
+		}
+
+		const uri = `${document.uri.scheme}://${document.uri.authority}${document.uri.path}${document.uri.query}${document.uri.fragment}`;
+		const requestId = this.nextRequestId++;
+		// Lets the server stop working on this request; a newer request for the document stops it as well.
+		const cancellation = token.onCancellationRequested(() => {
+			vscode.commands.executeCommand("java.execute.workspaceCommand", "spongepowered.mixin.cancel", uri, requestId)
+				.then(undefined, e => console.error(e));
+		});
+
+		const timeout = vscode.workspace.getConfiguration('spongepowered.mixin').get<number>('completion.timeout', 150);
+
 		try {
-			const completionItems: vscode.CompletionItem[] = await vscode.commands.executeCommand(
-				"java.execute.workspaceCommand", "spongepowered.mixin.completion",
-				`${document.uri.scheme}://${document.uri.authority}${document.uri.path}${document.uri.query}${document.uri.fragment}`,
-				position.line, position.character);
-			return new vscode.CompletionList(completionItems, false);
+			const result: MixinCompletionResult | undefined = await vscode.commands.executeCommand(
+				"java.execute.workspaceCommand", "spongepowered.mixin.completion", uri, position.line, position.character, requestId, timeout);
+			if (result && !token.isCancellationRequested) {
+				// The items are already ranked by the server, and replace the whole typed part of the literal.
+				const range = getLiteralPrefixRange(document, position);
+				const completionItems = result.items.map((item, index) => {
+					const completionItem = new vscode.CompletionItem(item.label, item.kind);
+					completionItem.detail = item.detail;
+					completionItem.range = range;
+					completionItem.sortText = index.toString().padStart(5, '0');
+					return completionItem;
+				});
+				return new vscode.CompletionList(completionItems, result.isIncomplete);
+			}
 		} catch (e) {
 			console.error(e);
+		} finally {
+			cancellation.dispose();
 		}
 
 		return new vscode.CompletionList([], false);
 	}
-}
\ No newline at end of file
+}
+
+function getLiteralPrefixRange(document: vscode.TextDocument, position: vscode.Position): vscode.Range | undefined {
+	const quote = document.lineAt(position.line).text.lastIndexOf('"', position.character - 1);
+	return quote >= 0 ? new vscode.Range(position.line, quote + 1, position.line, position.character) : undefined;
+}
@@ -0,0 +1,64 @@
+import * as vscode from 'vscode';
+
+interface MixinHandler {
+	mixin: string;
+	name: string;
+	annotation: string;
+	target: string;
+	uri: string;
+	line: number;
+	character: number;
+}
+
+interface MixinTarget {
+	member: string;
+	line: number;
+	character: number;
+	length: number;
+	handlers: MixinHandler[];
+}
+
+export default class MixinHandlerProvider implements vscode.CodeLensProvider, vscode.ReferenceProvider {
+	async provideCodeLenses(document: vscode.TextDocument, token: vscode.CancellationToken): Promise<vscode.CodeLens[]> {
+		const targets = await getTargets(document);
+		if (token.isCancellationRequested) {
+			return [];
+		}
+
+		return targets.map(target => {
+			const range = getRange(target);
+			const count = target.handlers.length;
+			return new vscode.CodeLens(range, {
+				title: count === 1 ? '1 mixin' : `${count} mixins`,
+				tooltip: target.handlers.map(handler => `@${handler.annotation} ${handler.mixin}#${handler.name}`).join('\n'),
+				command: 'editor.action.showReferences',
+				arguments: [document.uri, range.start, target.handlers.map(getLocation)],
+			});
+		});
+	}
+
+	async provideReferences(document: vscode.TextDocument, position: vscode.Position, context: vscode.ReferenceContext, token: vscode.CancellationToken): Promise<vscode.Location[]> {
+		const targets = await getTargets(document);
+		const target = targets.find(t => getRange(t).contains(position));
+		return target && !token.isCancellationRequested ? target.handlers.map(getLocation) : [];
+	}
+}
+
+async function getTargets(document: vscode.TextDocument): Promise<MixinTarget[]> {
+	try {
+		const targets: MixinTarget[] | undefined = await vscode.commands.executeCommand(
+			"java.execute.workspaceCommand", "spongepowered.mixin.handlers", document.uri.toString());
+		return targets ?? [];
+	} catch (e) {
+		console.error(e);
+		return [];
+	}
+}
+
+function getRange(target: MixinTarget): vscode.Range {
+	return new vscode.Range(target.line, target.character, target.line, target.character + target.length);
+}
+
+function getLocation(handler: MixinHandler): vscode.Location {
+	return new vscode.Location(vscode.Uri.parse(handler.uri), new vscode.Position(handler.line, handler.character));
+}
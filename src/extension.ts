@@ -1,9 +1,46 @@
-
 import * as vscode from 'vscode';
 import MixinCompletionItemProvider from './MixinCompletionItemProvider';
+import MixinHandlerProvider from './MixinHandlerProvider';
 
 export async function activate(context: vscode.ExtensionContext) {
 	context.subscriptions.push(vscode.languages.registerCompletionItemProvider({ scheme: 'file', language: 'java' }, new MixinCompletionItemProvider()));
+	// Targets are often library classes, which are opened from jdt:// URIs.
+	const handlerSelector = [{ scheme: 'file', language: 'java' }, { scheme: 'jdt', language: 'java' }];
+	const handlerProvider = new MixinHandlerProvider();
+	context.subscriptions.push(vscode.languages.registerCodeLensProvider(handlerSelector, handlerProvider));
+	context.subscriptions.push(vscode.languages.registerReferenceProvider(handlerSelector, handlerProvider));
+	context.subscriptions.push(vscode.commands.registerCommand('spongepowered.mixin.showStats', showStats));
+	context.subscriptions.push(vscode.commands.registerCommand('spongepowered.mixin.resetStats', resetStats));
+
+	preindex();
 }
 
 export function deactivate() { }
+
+async function preindex() {
+	try {
+		const javaApi = await vscode.extensions.getExtension('redhat.java')?.activate();
+		await javaApi?.serverReady?.();
+		await vscode.commands.executeCommand("java.execute.workspaceCommand", "spongepowered.mixin.preindex");
+	} catch (e) {
+		console.error(e);
+	}
+}
+
+async function showStats() {
+	try {
+		const stats = await vscode.commands.executeCommand("java.execute.workspaceCommand", "spongepowered.mixin.stats");
+		const document = await vscode.workspace.openTextDocument({ language: 'json', content: JSON.stringify(stats, null, 2) });
+		await vscode.window.showTextDocument(document);
+	} catch (e) {
+		console.error(e);
+	}
+}
+
+async function resetStats() {
+	try {
+		await vscode.commands.executeCommand("java.execute.workspaceCommand", "spongepowered.mixin.stats", true);
+	} catch (e) {
+		console.error(e);
+	}
+}